@@ -3,7 +3,7 @@ from __future__ import annotations
 import json
 from uuid import uuid4
 
-from fastapi import APIRouter, HTTPException, Response
+from fastapi import APIRouter, File, HTTPException, Response, UploadFile
 
 from .schemas import KycPayload, KycResult, AggregateResponse, CheckResult
 from app.core.config import get_settings, segmented_threshold
@@ -111,6 +111,36 @@ def doc_class(p: KycPayload):
 
 @router.post("/aggregate", response_model=AggregateResponse)
 def aggregate(p: KycPayload, response: Response):
+    return _aggregate(p, response)
+
+
+@router.post("/aggregate/multipart", response_model=AggregateResponse)
+def aggregate_multipart(
+    response: Response,
+    selfie: UploadFile | None = File(default=None),
+    docFrontImage: UploadFile | None = File(default=None),
+    docBackImage: UploadFile | None = File(default=None),
+    docPortraitImage: UploadFile | None = File(default=None),
+):
+    """Same as /aggregate, with the images sent as raw multipart parts instead of base64 JSON."""
+    p = KycPayload.model_construct(
+        selfie=_part_bytes(selfie),
+        docFront=None,
+        docFrontImage=_part_bytes(docFrontImage),
+        docBackImage=_part_bytes(docBackImage),
+        docPortraitImage=_part_bytes(docPortraitImage),
+    )
+    return _aggregate(p, response)
+
+
+def _part_bytes(part: UploadFile | None) -> bytes | None:
+    if part is None:
+        return None
+    data = part.file.read()
+    return data or None
+
+
+def _aggregate(p: KycPayload, response: Response) -> AggregateResponse:
     settings = get_settings()
     factory = get_factory()
 
@@ -0,0 +1,37 @@
+from io import BytesIO
+from PIL import Image
+
+
+def _png(img):
+    buf = BytesIO(); img.save(buf, format="PNG")
+    return buf.getvalue()
+
+
+def test_aggregate_multipart_matches_json(client):
+    import base64
+
+    selfie = _png(Image.new("RGB", (64, 64), "white"))
+    front = _png(Image.new("RGB", (96, 64), "gray"))
+
+    r_json = client.post("/api/v1/kyc/aggregate", json={
+        "selfie": base64.b64encode(selfie).decode(),
+        "docFrontImage": base64.b64encode(front).decode(),
+    })
+    r_mp = client.post("/api/v1/kyc/aggregate/multipart", files={
+        "selfie": ("selfie.png", selfie, "image/png"),
+        "docFrontImage": ("front.png", front, "image/png"),
+    }, data={"caseId": "case-1"})
+
+    assert r_json.status_code == 200, r_json.text
+    assert r_mp.status_code == 200, r_mp.text
+    assert r_mp.headers.get("X-Request-ID")
+    a, b = r_json.json(), r_mp.json()
+    assert a["decision"] == b["decision"]
+    assert {c["type"]: c["score"] for c in a["checks"]} == {c["type"]: c["score"] for c in b["checks"]}
+
+
+def test_aggregate_multipart_without_parts(client):
+    r = client.post("/api/v1/kyc/aggregate/multipart", data={"caseId": "case-2"})
+    assert r.status_code == 200, r.text
+    face = next(c for c in r.json()["checks"] if c["type"] == "FACE_MATCH")
+    assert face["score"] is None
@@ -0,0 +1,55 @@
+package com.bankingsystem.core.features.accounts;
+
+import com.bankingsystem.core.features.accounts.application.HotAccountService;
+import com.bankingsystem.core.features.transactions.application.LedgerPostingService;
+import com.bankingsystem.core.features.transactions.interfaces.dto.CashTransactionRequestDTO;
+import com.bankingsystem.core.support.H2BenchContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads crediting one merchant account: single-row mode ({@code buckets = 0}) serializes
+ * on the account row lock, striped mode spreads the credits over balance buckets.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=HotAccountBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class HotAccountBenchmark {
+
+    @Param({"0", "16"})
+    public int buckets;
+
+    private ConfigurableApplicationContext ctx;
+    private LedgerPostingService ledger;
+    private UUID merchantId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = H2BenchContext.start("hot" + buckets, "accounts.hot.enabled=true");
+        ledger = ctx.getBean(LedgerPostingService.class);
+        merchantId = H2BenchContext.seedAccounts(ctx, 1, BigDecimal.ZERO).get(0);
+        if (buckets > 0) {
+            ctx.getBean(HotAccountService.class).changeHotAccountMode(merchantId, buckets);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Object credit() {
+        CashTransactionRequestDTO request = new CashTransactionRequestDTO();
+        request.setAccountId(merchantId);
+        request.setAmount(new BigDecimal("1.00"));
+        return ledger.deposit(request);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankingsystem.core.features.kyc;
+
+import com.bankingsystem.core.features.kyc.integration.MlKycClient;
+import com.bankingsystem.core.features.kyc.integration.MlKycGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One ML aggregate call per case with four images of {@code imageKb} each, JSON (base64) versus
+ * multipart streaming. The ML service is a local stub that drains the body and answers with a
+ * fixed decision, so the numbers are the client's encoding and transfer cost.
+ * <p>
+ * Heap per case is {@code gc.alloc.rate.norm} from the GC profiler:
+ * {@code gradle jmh -PjmhIncludes=MlKycTransportBenchmark -PjmhProfilers=gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class MlKycTransportBenchmark {
+
+    private static final String RESPONSE = """
+            {"decision":"APPROVE","reasons":[],"checks":[{"type":"FACE_MATCH","score":0.93,"passed":true,"details":{}}]}""";
+    private static final Map<String, String> META = Map.of("caseId", "bench");
+
+    @Param({"json", "multipart"})
+    public String transport;
+
+    @Param({"512", "2048", "6000"})
+    public int imageKb;
+
+    private DisposableServer server;
+    private Path dir;
+    private MlKycClient ml;
+    private MlKycClient.KycImages images;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(r -> r.post("/api/v1/kyc/aggregate", MlKycTransportBenchmark::reply)
+                        .post("/api/v1/kyc/aggregate/multipart", MlKycTransportBenchmark::reply))
+                .bindNow();
+
+        WebClient client = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.port())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(20 * 1024 * 1024))
+                .build();
+        MlKycGuard guard = new MlKycGuard(new SimpleMeterRegistry(),
+                1, 1, 0.9, 60_000, 20, 10, 0.5, 30_000, 600_000, 2);
+        ml = new MlKycClient(client, guard, transport, 64 * 1024);
+
+        dir = Files.createTempDirectory("kyc-transport");
+        images = new MlKycClient.KycImages(image("selfie"), image("front"), image("back"), image("address"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.disposeNow();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Benchmark
+    public MlKycClient.KycAggregateResult aggregate() {
+        return ml.aggregateAsync(images, META).block();
+    }
+
+    private Path image(String name) throws IOException {
+        byte[] data = new byte[imageKb * 1024];
+        ThreadLocalRandom.current().nextBytes(data);
+        return Files.write(dir.resolve(name + ".jpg"), data);
+    }
+
+    private static Mono<Void> reply(HttpServerRequest req, HttpServerResponse res) {
+        return req.receive().then(res
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Request-ID", "bench")
+                .sendString(Mono.just(RESPONSE))
+                .then());
+    }
+}
@@ -0,0 +1,70 @@
+package com.bankingsystem.core.features.transactions;
+
+import com.bankingsystem.core.features.transactions.application.LedgerPostingService;
+import com.bankingsystem.core.features.transactions.interfaces.dto.CashTransactionRequestDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransferRequestDTO;
+import com.bankingsystem.core.support.H2BenchContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting throughput with many threads moving money between a small set of hot accounts, which
+ * is the worst case for row-lock contention. Opposite-direction transfers between the same pair
+ * are frequent, so a lock-ordering bug shows up as deadlock errors here.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=LedgerPostingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class LedgerPostingBenchmark {
+
+    @Param({"8", "64"})
+    public int accounts;
+
+    private ConfigurableApplicationContext ctx;
+    private LedgerPostingService ledger;
+    private List<UUID> accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = H2BenchContext.start("ledger" + accounts);
+        ledger = ctx.getBean(LedgerPostingService.class);
+        accountIds = H2BenchContext.seedAccounts(ctx, accounts, new BigDecimal("1000000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Object transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(accountIds.size());
+        int to = (from + 1 + rnd.nextInt(accountIds.size() - 1)) % accountIds.size();
+
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setFromAccountId(accountIds.get(from));
+        request.setToAccountId(accountIds.get(to));
+        request.setAmount(new BigDecimal("1.00"));
+        return ledger.transfer(request);
+    }
+
+    @Benchmark
+    public Object deposit() {
+        CashTransactionRequestDTO request = new CashTransactionRequestDTO();
+        request.setAccountId(accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size())));
+        request.setAmount(new BigDecimal("1.00"));
+        return ledger.deposit(request);
+    }
+}
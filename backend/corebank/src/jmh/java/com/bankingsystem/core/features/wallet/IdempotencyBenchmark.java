@@ -0,0 +1,63 @@
+package com.bankingsystem.core.features.wallet;
+
+import com.bankingsystem.core.features.wallet.application.IdempotencyService;
+import com.bankingsystem.core.features.wallet.interfaces.dto.AmountDto;
+import com.bankingsystem.core.support.H2BenchContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client retries of an already completed wallet call. With {@code cacheSize = 0} every replay
+ * reads the {@code wallet_idempotency} row; otherwise it is served from the node-local tier.
+ * {@code fresh} measures first executions (claim insert + response update).
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=IdempotencyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class IdempotencyBenchmark {
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private static final Map<String, Object> REQUEST = Map.of("amount", 100.0, "currency", "LKR");
+
+    private ConfigurableApplicationContext ctx;
+    private IdempotencyService idempotency;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = H2BenchContext.start("idem" + cacheSize, "wallet.idempotency.cache.max-size=" + cacheSize);
+        idempotency = ctx.getBean(IdempotencyService.class);
+        idempotency.withIdempotency("replayed", REQUEST, AmountDto.class, IdempotencyBenchmark::execute);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Object replay() {
+        return idempotency.withIdempotency("replayed", REQUEST, AmountDto.class, IdempotencyBenchmark::execute);
+    }
+
+    @Benchmark
+    public Object fresh() {
+        String key = "k-" + sequence.incrementAndGet() + "-" + UUID.randomUUID();
+        return idempotency.withIdempotency(key, REQUEST, AmountDto.class, IdempotencyBenchmark::execute);
+    }
+
+    private static AmountDto execute() {
+        return new AmountDto(new BigDecimal("100.00"), "LKR");
+    }
+}
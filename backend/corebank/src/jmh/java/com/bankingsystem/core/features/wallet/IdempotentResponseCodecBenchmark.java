@@ -0,0 +1,62 @@
+package com.bankingsystem.core.features.wallet;
+
+import com.bankingsystem.core.features.wallet.application.IdempotentResponseCodec;
+import com.bankingsystem.core.features.wallet.application.IdempotentResponseCodecs;
+import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
+import com.bankingsystem.core.features.wallet.interfaces.dto.AmountDto;
+import com.bankingsystem.core.features.wallet.interfaces.dto.PaymentIntentDto;
+import com.bankingsystem.core.modules.common.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a typical stored wallet response per codec. The encoded size is logged
+ * once per trial.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=IdempotentResponseCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdempotentResponseCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentResponseCodecBenchmark.class);
+
+    @Param({"json", "smile", "smile+deflate"})
+    public String codec;
+
+    private IdempotentResponseCodec responseCodec;
+    private PaymentIntentDto response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        IdempotentResponseCodecs codecs = new IdempotentResponseCodecs(new JacksonConfig().objectMapper(), codec);
+        responseCodec = codecs.active();
+        response = PaymentIntentDto.builder()
+                .intentId(UUID.randomUUID().toString())
+                .status(PaymentStatus.PENDING)
+                .amount(new AmountDto(new BigDecimal("2500.00"), "LKR"))
+                .description("QR payment to merchant 1042")
+                .returnUrl("https://bank.example/wallet/return?intent=" + UUID.randomUUID())
+                .providerClientSecret("pi_" + UUID.randomUUID().toString().replace("-", ""))
+                .build();
+        encoded = responseCodec.encode(response);
+        log.info("{} encoded size: {} bytes", codec, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return responseCodec.encode(response);
+    }
+
+    @Benchmark
+    public PaymentIntentDto decode() {
+        return responseCodec.decode(encoded, PaymentIntentDto.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bankingsystem.core.features.wallet;
+
+import com.bankingsystem.core.features.wallet.config.PayHereProperties;
+import com.bankingsystem.core.features.wallet.domain.Money;
+import com.bankingsystem.core.features.wallet.integration.payhere.PayHereSignature;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing throughput of the cached signer against the previous per-call implementation
+ * ({@code legacy*}, kept here as the baseline): notify verification, and amount formatting plus
+ * request hashing with {@link Money} instead of {@code double} and {@code DecimalFormat}.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=PayHereSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class PayHereSignatureBenchmark {
+
+    private static final String SECRET = "MzE0NjA1NzE1MjM3MzM4NzM3ODgxMjQ3NjQ0MjA3Mzg1MTQ3";
+    private static final String ORDER_ID = "8f2c1e0d6b9a4c7e9d3f5a1b2c4d6e8f";
+    private static final Money AMOUNT = Money.ofMinor(250_000, "LKR");
+
+    private PayHereSignature signature;
+    private Map<String, String> form;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PayHereProperties cfg = new PayHereProperties();
+        cfg.setMerchantId("1221149");
+        cfg.setMerchantSecret(SECRET);
+        signature = new PayHereSignature(cfg);
+
+        form = new HashMap<>();
+        form.put("merchant_id", "1221149");
+        form.put("order_id", ORDER_ID);
+        form.put("payment_id", "320025071278");
+        form.put("payhere_amount", "2500.00");
+        form.put("payhere_currency", "LKR");
+        form.put("status_code", "2");
+        form.put("md5sig", md5(form.get("merchant_id") + form.get("order_id") + form.get("payhere_amount")
+                + form.get("payhere_currency") + form.get("status_code") + md5(SECRET).toUpperCase()).toUpperCase());
+    }
+
+    @Benchmark
+    public boolean verifyNotify() {
+        return signature.verifyNotify(form);
+    }
+
+    @Benchmark
+    public boolean legacyVerifyNotify() {
+        String raw = form.get("merchant_id") + form.get("order_id") + form.get("payhere_amount")
+                + form.get("payhere_currency") + form.get("status_code") + md5(SECRET).toUpperCase();
+        return md5(raw).toUpperCase().equalsIgnoreCase(form.get("md5sig"));
+    }
+
+    @Benchmark
+    public String formatAmount() {
+        return AMOUNT.formatAmount();
+    }
+
+    @Benchmark
+    public String legacyFormatAmount() {
+        return new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.US)).format(2500.00);
+    }
+
+    @Benchmark
+    public String requestHash() {
+        return signature.requestHash(ORDER_ID, AMOUNT);
+    }
+
+    @Benchmark
+    public String legacyRequestHash() {
+        String amountStr = new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.US)).format(2500.00);
+        String raw = "1221149" + ORDER_ID + amountStr + "LKR" + md5(SECRET).toUpperCase();
+        return md5(raw).toUpperCase();
+    }
+
+    private static String md5(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] digest = md.digest(s.getBytes());
+            String out = new BigInteger(1, digest).toString(16).toUpperCase();
+            StringBuilder sb = new StringBuilder(out);
+            while (sb.length() < 32) sb.insert(0, '0');
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
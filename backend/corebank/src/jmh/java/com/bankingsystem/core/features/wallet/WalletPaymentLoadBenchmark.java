@@ -0,0 +1,93 @@
+package com.bankingsystem.core.features.wallet;
+
+import com.bankingsystem.core.features.wallet.application.WalletService;
+import com.bankingsystem.core.features.wallet.domain.entity.PaymentIntent;
+import com.bankingsystem.core.features.wallet.domain.repository.PaymentIntentRepository;
+import com.bankingsystem.core.features.wallet.interfaces.dto.AmountDto;
+import com.bankingsystem.core.features.wallet.interfaces.dto.QrPaymentRequest;
+import com.bankingsystem.core.modules.common.security.AuthenticatedUser;
+import com.bankingsystem.core.support.H2BenchContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end wallet payments against the PSP simulator: create a QR payment through
+ * {@link WalletService}, then wait until the simulator's signed callback has gone through the
+ * real {@code /notify} endpoint, the inbox and the state machine. Sample mode reports p50/p99
+ * of that round trip and, with {@code @Threads}, the sustained payment rate.
+ * <p>
+ * The simulated PSP latency is kept small so the wallet's own overhead dominates.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=WalletPaymentLoadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class WalletPaymentLoadBenchmark {
+
+    private static final long SETTLE_TIMEOUT_MS = 30_000;
+
+    @Param({"0", "0.3"})
+    public double duplicateRate;
+
+    private ConfigurableApplicationContext ctx;
+    private WalletService wallet;
+    private PaymentIntentRepository intents;
+    private Authentication auth;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ctx = H2BenchContext.startWeb("walletload" + (int) (duplicateRate * 100), port,
+                "spring.profiles.active=bench",
+                "wallet.psp.provider=simulator",
+                "wallet.psp.simulator.latency-min-ms=5",
+                "wallet.psp.simulator.latency-max-ms=20",
+                "wallet.psp.simulator.failure-rate=0.05",
+                "wallet.psp.simulator.duplicate-rate=" + duplicateRate,
+                "payhere.merchant-id=1221149",
+                "payhere.merchant-secret=bench-merchant-secret",
+                "payhere.sandbox=true",
+                "payhere.server-base-url=http://127.0.0.1:" + port);
+        wallet = ctx.getBean(WalletService.class);
+        intents = ctx.getBean(PaymentIntentRepository.class);
+        AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), null, "bench-wallet", "CUSTOMER");
+        auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public PaymentIntent payAndSettle() throws InterruptedException {
+        QrPaymentRequest request = new QrPaymentRequest(
+                new AmountDto(new BigDecimal("1250.00"), "LKR"), "bench-qr", "bench-merchant");
+        String intentId = wallet.createQrPayment(auth, request, UUID.randomUUID().toString()).getIntentId();
+
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            PaymentIntent p = intents.findById(intentId).orElseThrow();
+            if (p.getStatus().isFinal()) {
+                return p;
+            }
+            Thread.sleep(1);
+        }
+        throw new IllegalStateException("Payment " + intentId + " not settled within " + SETTLE_TIMEOUT_MS + " ms");
+    }
+}
@@ -0,0 +1,52 @@
+package com.bankingsystem.core.modules.common.security;
+
+import com.bankingsystem.core.modules.common.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old filter path (three parses, each
+ * rebuilding the key and parser) against a single {@link JwtUtils#parseVerified(String)}.
+ * <p>
+ * Run with {@code gradle jmh -PjmhIncludes=JwtParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret(SECRET);
+        props.setExpirationMs(3_600_000L);
+        jwtUtils = new JwtUtils(props);
+        token = jwtUtils.generateJwtToken("bench-user", "CUSTOMER");
+    }
+
+    @Benchmark
+    public void threeParsesRebuildingKey(Blackhole bh) {
+        for (int i = 0; i < 3; i++) {
+            bh.consume(Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody());
+        }
+    }
+
+    @Benchmark
+    public JwtClaims parseVerifiedOnce() {
+        return jwtUtils.parseVerified(token);
+    }
+}
@@ -0,0 +1,115 @@
+package com.bankingsystem.core.support;
+
+import com.bankingsystem.core.CoreBankingSystemApplication;
+import com.bankingsystem.core.features.accounts.domain.Account;
+import com.bankingsystem.core.features.customer.domain.Customer;
+import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.enums.AccountType;
+import com.bankingsystem.core.modules.common.enums.Gender;
+import com.bankingsystem.core.modules.common.enums.Status;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web layer against an in-memory H2 database (MySQL mode),
+ * for benchmarks that need the real JPA/transaction stack.
+ * <p>
+ * Set {@code BENCH_DATASOURCE_URL} (plus {@code BENCH_DATASOURCE_USERNAME} and
+ * {@code BENCH_DATASOURCE_PASSWORD}) to run against a real database instead; lock-contention
+ * results on in-memory H2 understate commit latency and therefore lock hold times.
+ */
+public final class H2BenchContext {
+
+    private H2BenchContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String dbName, String... extraProperties) {
+        return run(WebApplicationType.NONE, dbName, List.of(extraProperties));
+    }
+
+    /** Like {@link #start} but with the servlet stack listening on {@code port}, for end-to-end HTTP runs. */
+    public static ConfigurableApplicationContext startWeb(String dbName, int port, String... extraProperties) {
+        List<String> props = new ArrayList<>(List.of("server.port=" + port));
+        props.addAll(List.of(extraProperties));
+        return run(WebApplicationType.SERVLET, dbName, props);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String dbName, List<String> extraProperties) {
+        List<String> props = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + dbName + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.hikari.maximum-pool-size=32",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.open-in-view=false",
+                "jwt.secret=benchmark-secret-benchmark-secret-benchmark-secret-0123456789",
+                "jwt.expiration-ms=3600000",
+                "spring.mail.host=localhost",
+                "app.default-admin.username=bench-admin",
+                "app.default-admin.email=bench-admin@example.com",
+                "app.default-admin.password=bench-admin",
+                "app.default-customer.username=bench-customer",
+                "app.default-customer.email=bench-customer@example.com",
+                "app.default-customer.password=bench-customer",
+                "app.default-teller.username=bench-teller",
+                "app.default-teller.email=bench-teller@example.com",
+                "app.default-teller.password=bench-teller",
+                "app.default-manager.username=bench-manager",
+                "app.default-manager.email=bench-manager@example.com",
+                "app.default-manager.password=bench-manager",
+                "logging.level.root=WARN"));
+        String url = System.getenv("BENCH_DATASOURCE_URL");
+        if (url != null && !url.isBlank()) {
+            props.add("spring.datasource.url=" + url);
+            props.add("spring.datasource.username=" + System.getenv().getOrDefault("BENCH_DATASOURCE_USERNAME", "root"));
+            props.add("spring.datasource.password=" + System.getenv().getOrDefault("BENCH_DATASOURCE_PASSWORD", ""));
+        }
+        props.addAll(extraProperties);
+        return new SpringApplicationBuilder(CoreBankingSystemApplication.class)
+                .web(type)
+                .properties(props.toArray(String[]::new))
+                .run();
+    }
+
+    /** Creates one customer owning {@code count} active accounts, each funded with {@code balance}. */
+    public static List<UUID> seedAccounts(ConfigurableApplicationContext ctx, int count, BigDecimal balance) {
+        EntityManager em = ctx.getBean(EntityManager.class);
+        TransactionTemplate tx = ctx.getBean(TransactionTemplate.class);
+        return tx.execute(status -> {
+            Customer customer = new Customer();
+            customer.setFirstName("Bench");
+            customer.setLastName("Customer");
+            customer.setGender(Gender.OTHER);
+            customer.setEmail("bench-" + UUID.randomUUID() + "@example.com");
+            customer.setPhone("0000000000");
+            customer.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            customer.setStatus(Status.ACTIVE);
+            em.persist(customer);
+
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Account account = new Account();
+                account.setAccountNumber("BENCH" + UUID.randomUUID().toString().substring(0, 12));
+                account.setAccountType(AccountType.values()[0]);
+                account.setAccountStatus(AccountStatus.ACTIVE);
+                account.setBalance(balance);
+                account.setCustomer(customer);
+                account.setCreatedAt(LocalDateTime.now());
+                account.setUpdatedAt(LocalDateTime.now());
+                em.persist(account);
+                ids.add(account.getAccountId());
+            }
+            return ids;
+        });
+    }
+}
@@ -3,7 +3,11 @@ package com.bankingsystem.core.features.accounts.application;
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountRequestDTO;
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountResponseDTO;
 import com.bankingsystem.core.features.accounts.domain.Account;
+import com.bankingsystem.core.features.accounts.interfaces.dto.AccountSummaryDTO;
 import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.enums.AccountType;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,6 +16,8 @@ public interface AccountService {
 
     List<AccountResponseDTO> getAllAccounts();
 
+    SliceResponse<AccountSummaryDTO> listAccounts(AccountStatus status, AccountType type, Integer branchId, Pageable pageable);
+
     AccountResponseDTO getAccountById(UUID accountId);
 
     List<AccountResponseDTO> getAccountsByCustomerId(UUID customerId);
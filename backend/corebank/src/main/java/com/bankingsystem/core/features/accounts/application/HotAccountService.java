@@ -0,0 +1,12 @@
+package com.bankingsystem.core.features.accounts.application;
+
+import java.util.UUID;
+
+public interface HotAccountService {
+
+    /** Switches the account to {@code buckets} balance stripes, or back to single-row mode when 0. */
+    void changeHotAccountMode(UUID accountId, int buckets);
+
+    /** Moves all pending bucket credits of the account into its main balance. */
+    void fold(UUID accountId);
+}
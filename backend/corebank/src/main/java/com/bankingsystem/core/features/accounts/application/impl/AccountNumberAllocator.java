@@ -0,0 +1,104 @@
+package com.bankingsystem.core.features.accounts.application.impl;
+
+import com.bankingsystem.core.features.accounts.domain.AccountNumberSequence;
+import com.bankingsystem.core.features.accounts.domain.repository.AccountNumberSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out account numbers of the form {@code BBBB SSSSSSS C}: 4-digit branch code, 7-digit
+ * per-branch serial and a Luhn check digit.
+ * <p>
+ * Serials are leased from {@link AccountNumberSequence} in blocks in a separate short transaction,
+ * so concurrent nodes never receive overlapping ranges and opening an account needs no uniqueness
+ * query. Numbers left in a block when a node stops are skipped, never reused. The 12-digit
+ * format cannot collide with the legacy 10-digit random numbers.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+
+    static final long MAX_BRANCH_CODE = 9_999;
+    static final long MAX_SERIAL = 9_999_999;
+
+    private final AccountNumberSequenceRepository sequences;
+    private final TransactionTemplate leaseTx;
+    private final int blockSize;
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    public AccountNumberAllocator(AccountNumberSequenceRepository sequences,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${accounts.number.block-size:100}") int blockSize) {
+        this.sequences = sequences;
+        this.leaseTx = new TransactionTemplate(transactionManager);
+        this.leaseTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String next(Integer branchId) {
+        if (branchId == null || branchId < 0 || branchId > MAX_BRANCH_CODE) {
+            throw new IllegalArgumentException("Branch id " + branchId + " does not fit the account number format");
+        }
+        Block block = blocks.computeIfAbsent(branchId, id -> new Block());
+        long serial;
+        synchronized (block) {
+            if (block.next >= block.end) {
+                block.next = lease(branchId);
+                block.end = Math.min(block.next + blockSize, MAX_SERIAL + 1);
+            }
+            serial = block.next++;
+        }
+        String body = String.format("%04d%07d", branchId, serial);
+        return body + luhnCheckDigit(body);
+    }
+
+    private long lease(Integer branchId) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Long start = leaseTx.execute(status -> {
+                    AccountNumberSequence seq = sequences.findByIdForUpdate(branchId)
+                            .orElseGet(() -> sequences.saveAndFlush(new AccountNumberSequence(branchId, 1)));
+                    long first = seq.getNextSerial();
+                    if (first > MAX_SERIAL) {
+                        throw new IllegalStateException("Account number serials exhausted for branch " + branchId);
+                    }
+                    seq.setNextSerial(first + blockSize);
+                    return first;
+                });
+                log.debug("Leased account number serials {}..{} for branch {}", start, start + blockSize - 1, branchId);
+                return start;
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the branch row first; lock it on the next attempt.
+                if (attempt >= 2) throw e;
+            }
+        }
+    }
+
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean dbl = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (dbl) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            dbl = !dbl;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        long next;
+        long end;
+    }
+}
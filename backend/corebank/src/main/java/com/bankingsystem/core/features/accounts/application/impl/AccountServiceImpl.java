@@ -2,6 +2,9 @@ package com.bankingsystem.core.features.accounts.application.impl;
 
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountRequestDTO;
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountResponseDTO;
+import com.bankingsystem.core.features.accounts.interfaces.dto.AccountSummaryDTO;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
+import org.springframework.data.domain.Pageable;
 import com.bankingsystem.core.features.accounts.domain.Account;
 import com.bankingsystem.core.features.branch.domain.Branch;
 import com.bankingsystem.core.features.customer.domain.Customer;
@@ -17,14 +20,15 @@ import com.bankingsystem.core.features.customer.domain.repository.CustomerReposi
 import com.bankingsystem.core.features.transactions.domain.repository.TransactionRepository;
 import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
 import com.bankingsystem.core.features.accounts.application.AccountService;
+import com.bankingsystem.core.modules.common.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,10 +43,7 @@ public class AccountServiceImpl implements AccountService {
     private final CustomerRepository customerRepository;
     private final BranchRepository branchRepository;
     private final TransactionRepository transactionRepository;
-
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final int ACCOUNT_NUMBER_LENGTH = 10;
-    private static final int MAX_RETRIES = 10;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     private static final Map<AccountType, BigDecimal> MIN_DEPOSIT = Map.of(
             AccountType.SAVINGS, new BigDecimal("1000.00"),
@@ -55,6 +56,11 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    @Override
+    public SliceResponse<AccountSummaryDTO> listAccounts(AccountStatus status, AccountType type, Integer branchId, Pageable pageable) {
+        return SliceResponse.of(accountRepository.findSummaries(status, type, branchId, pageable));
+    }
+
     @Override
     public AccountResponseDTO getAccountById(UUID accountId) {
         Account account = accountRepository.findById(accountId)
@@ -64,11 +70,23 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<AccountResponseDTO> getAccountsByCustomerId(UUID customerId) {
-        return accountRepository.findByCustomerCustomerId(customerId)
-                .stream().map(this::mapToDTO).collect(Collectors.toList());
+        List<AccountResponseDTO> accounts = new ArrayList<>();
+        for (AccountRepository.AccountListing a : accountRepository.findListingByCustomerId(customerId)) {
+            AccountResponseDTO dto = new AccountResponseDTO();
+            dto.setAccountId(a.getAccountId());
+            dto.setAccountNumber(a.getAccountNumber());
+            dto.setAccountType(a.getAccountType());
+            dto.setAccountStatus(a.getAccountStatus());
+            dto.setBalance(a.getBalance());
+            dto.setCreatedAt(a.getCreatedAt());
+            dto.setUpdatedAt(a.getUpdatedAt());
+            accounts.add(dto);
+        }
+        return accounts;
     }
 
     @Override
+    @Transactional
     public AccountResponseDTO openAccount(AccountRequestDTO request, UUID targetUserId) {
         UUID currentUserId = getCurrentUserId();
         User currentUser = userRepository.findById(currentUserId)
@@ -97,7 +115,7 @@ public class AccountServiceImpl implements AccountService {
         }
 
         Account account = new Account();
-        account.setAccountNumber(generateUniqueAccountNumber());
+        account.setAccountNumber(accountNumberAllocator.next(branch.getBranchId()));
         account.setAccountType(request.getAccountType());
         account.setAccountStatus(AccountStatus.ACTIVE);
         account.setBalance(deposit);
@@ -160,17 +178,25 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<AccountResponseDTO> getAccountsForCurrentUser() {
-        UUID userId = getCurrentUserId();
-        Customer customer = customerRepository.findByUserUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
-        return accountRepository.findByCustomerCustomerId(customer.getCustomerId())
-                .stream().map(this::mapToDTO).collect(Collectors.toList());
+        UUID customerId = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication())
+                .map(AuthenticatedUser::customerId)
+                .orElseGet(() -> customerRepository.findByUserUserId(getCurrentUserId())
+                        .map(Customer::getCustomerId)
+                        .orElse(null));
+        if (customerId == null) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+        return getAccountsByCustomerId(customerId);
     }
 
     // Helpers
 
     private UUID getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<AuthenticatedUser> principal = AuthenticatedUser.from(auth);
+        if (principal.isPresent()) {
+            return principal.get().userId();
+        }
         String username = auth.getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"))
@@ -183,23 +209,11 @@ public class AccountServiceImpl implements AccountService {
         dto.setAccountNumber(account.getAccountNumber());
         dto.setAccountType(account.getAccountType());
         dto.setAccountStatus(account.getAccountStatus());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(account.isHotAccount()
+                ? accountRepository.findExactBalance(account.getAccountId()).orElse(account.getBalance())
+                : account.getBalance());
         dto.setCreatedAt(account.getCreatedAt());
         dto.setUpdatedAt(account.getUpdatedAt());
         return dto;
     }
-
-    private String generateUniqueAccountNumber() {
-        for (int attempts = 0; attempts < MAX_RETRIES; attempts++) {
-            String accountNumber = randomDigits(ACCOUNT_NUMBER_LENGTH);
-            if (!accountRepository.existsByAccountNumber(accountNumber)) return accountNumber;
-        }
-        throw new IllegalStateException("Failed to generate unique account number after " + MAX_RETRIES + " attempts");
-    }
-
-    private String randomDigits(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) sb.append(SECURE_RANDOM.nextInt(10));
-        return sb.toString();
-    }
 }
@@ -18,6 +18,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "accounts", uniqueConstraints = {
         @UniqueConstraint(columnNames = "account_number")
+}, indexes = {
+        @Index(name = "idx_accounts_created", columnList = "created_at, account_id")
 })
 public class Account {
 
@@ -42,6 +44,14 @@ public class Account {
     @Column(name = "balance", nullable = false, precision = 19, scale = 4)
     private BigDecimal balance;
 
+    /**
+     * Number of {@link AccountBalanceBucket} stripes credits are spread over; {@code 0} means the
+     * account is a regular single-row account. The exact balance of a hot account is
+     * {@code balance} plus the sum of its buckets.
+     */
+    @Column(name = "balance_buckets", nullable = false)
+    private int balanceBuckets = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -56,4 +66,7 @@ public class Account {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    public boolean isHotAccount() {
+        return balanceBuckets > 0;
+    }
 }
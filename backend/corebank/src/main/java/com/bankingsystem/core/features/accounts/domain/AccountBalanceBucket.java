@@ -0,0 +1,41 @@
+package com.bankingsystem.core.features.accounts.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One stripe of pending credits for a hot {@link Account}. Credits increment a random bucket
+ * instead of locking the account row; the folder periodically moves bucket totals into
+ * {@link Account#getBalance()}.
+ */
+@Entity
+@Table(name = "account_balance_buckets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_bucket", columnNames = {"account_id", "bucket_no"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountBalanceBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID accountId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private int bucketNo;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    public AccountBalanceBucket(UUID accountId, int bucketNo) {
+        this.accountId = accountId;
+        this.bucketNo = bucketNo;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankingsystem.core.features.accounts.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-branch high-water mark for account-number serials. App nodes lease disjoint
+ * {@code [nextSerial, nextSerial + blockSize)} ranges from this row under a row lock.
+ */
+@Entity
+@Table(name = "account_number_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountNumberSequence {
+
+    @Id
+    @Column(name = "branch_id")
+    private Integer branchId;
+
+    @Column(name = "next_serial", nullable = false)
+    private long nextSerial;
+
+    public AccountNumberSequence(Integer branchId, long nextSerial) {
+        this.branchId = branchId;
+        this.nextSerial = nextSerial;
+    }
+}
@@ -0,0 +1,39 @@
+package com.bankingsystem.core.features.accounts.domain.repository;
+
+import com.bankingsystem.core.features.accounts.domain.AccountBalanceBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, Long> {
+
+    @Modifying
+    @Query("UPDATE AccountBalanceBucket b SET b.amount = b.amount + :delta " +
+            "WHERE b.accountId = :accountId AND b.bucketNo = :bucketNo")
+    int addToBucket(@Param("accountId") UUID accountId,
+                    @Param("bucketNo") int bucketNo,
+                    @Param("delta") BigDecimal delta);
+
+    @Query("SELECT COALESCE(SUM(b.amount), 0) FROM AccountBalanceBucket b WHERE b.accountId = :accountId")
+    BigDecimal sumPending(@Param("accountId") UUID accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalanceBucket b WHERE b.accountId = :accountId ORDER BY b.bucketNo")
+    List<AccountBalanceBucket> lockAllForAccount(@Param("accountId") UUID accountId);
+
+    @Query("SELECT DISTINCT b.accountId FROM AccountBalanceBucket b WHERE b.amount <> 0")
+    List<UUID> findAccountIdsWithPending();
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceBucket b WHERE b.accountId = :accountId")
+    void deleteByAccountId(@Param("accountId") UUID accountId);
+}
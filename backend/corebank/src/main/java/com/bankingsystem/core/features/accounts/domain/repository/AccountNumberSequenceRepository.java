@@ -0,0 +1,19 @@
+package com.bankingsystem.core.features.accounts.domain.repository;
+
+import com.bankingsystem.core.features.accounts.domain.AccountNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberSequenceRepository extends JpaRepository<AccountNumberSequence, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountNumberSequence s WHERE s.branchId = :branchId")
+    Optional<AccountNumberSequence> findByIdForUpdate(@Param("branchId") Integer branchId);
+}
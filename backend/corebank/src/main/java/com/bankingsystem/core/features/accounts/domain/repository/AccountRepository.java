@@ -1,10 +1,22 @@
 package com.bankingsystem.core.features.accounts.domain.repository;
 
 import com.bankingsystem.core.features.accounts.domain.Account;
+import com.bankingsystem.core.features.accounts.interfaces.dto.AccountSummaryDTO;
+import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.enums.AccountType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +26,76 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     List<Account> findByCustomerCustomerId(UUID customerId);
 
     boolean existsByAccountNumber(String accountNumber);
+
+    @Query("SELECT new com.bankingsystem.core.features.accounts.interfaces.dto.AccountSummaryDTO(" +
+            "a.accountId, a.accountNumber, a.accountType, a.accountStatus, " +
+            "a.balance + COALESCE((SELECT SUM(bk.amount) FROM AccountBalanceBucket bk WHERE bk.accountId = a.accountId), 0), " +
+            "a.customer.customerId, br.branchId, a.createdAt) " +
+            "FROM Account a LEFT JOIN a.branch br " +
+            "WHERE (:status IS NULL OR a.accountStatus = :status) " +
+            "AND (:type IS NULL OR a.accountType = :type) " +
+            "AND (:branchId IS NULL OR br.branchId = :branchId)")
+    Slice<AccountSummaryDTO> findSummaries(@Param("status") AccountStatus status,
+                                           @Param("type") AccountType type,
+                                           @Param("branchId") Integer branchId,
+                                           Pageable pageable);
+
+    /** Exact balance including pending hot-account buckets, read in one statement. */
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(b.amount) FROM AccountBalanceBucket b " +
+            "WHERE b.accountId = a.accountId), 0) FROM Account a WHERE a.accountId = :accountId")
+    Optional<BigDecimal> findExactBalance(@Param("accountId") UUID accountId);
+
+    /** A customer's accounts with exact balances (hot-account buckets included), read in one statement. */
+    @Query("SELECT a.accountId AS accountId, a.accountNumber AS accountNumber, a.accountType AS accountType, " +
+            "a.accountStatus AS accountStatus, " +
+            "a.balance + COALESCE((SELECT SUM(b.amount) FROM AccountBalanceBucket b " +
+            "WHERE b.accountId = a.accountId), 0) AS balance, " +
+            "a.createdAt AS createdAt, a.updatedAt AS updatedAt " +
+            "FROM Account a WHERE a.customer.customerId = :customerId")
+    List<AccountListing> findListingByCustomerId(@Param("customerId") UUID customerId);
+
+    interface AccountListing {
+        UUID getAccountId();
+
+        String getAccountNumber();
+
+        AccountType getAccountType();
+
+        AccountStatus getAccountStatus();
+
+        BigDecimal getBalance();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    /** Fields the posting engine needs to route a credit, without loading the entity. */
+    @Query("SELECT a.accountStatus AS accountStatus, a.accountNumber AS accountNumber, " +
+            "a.balanceBuckets AS balanceBuckets FROM Account a WHERE a.accountId = :accountId")
+    Optional<PostingTarget> findPostingTarget(@Param("accountId") UUID accountId);
+
+    interface PostingTarget {
+        AccountStatus getAccountStatus();
+
+        String getAccountNumber();
+
+        int getBalanceBuckets();
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") UUID accountId);
+
+    /** Shared row lock ({@code FOR SHARE}): blocks folds and mode changes, not other share holders. */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByIdForShare(@Param("accountId") UUID accountId);
+
+    boolean existsByAccountIdAndCustomerCustomerId(UUID accountId, UUID customerId);
+
+    @Query("SELECT COUNT(a) > 0 FROM Account a JOIN a.customer c JOIN c.user u " +
+            "WHERE a.accountId = :accountId AND u.username = :username")
+    boolean existsByAccountIdAndOwnerUsername(@Param("accountId") UUID accountId,
+                                              @Param("username") String username);
 }
@@ -2,15 +2,33 @@ package com.bankingsystem.core.features.accounts.interfaces;
 
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountRequestDTO;
 import com.bankingsystem.core.features.accounts.interfaces.dto.AccountResponseDTO;
+import com.bankingsystem.core.features.accounts.interfaces.dto.AccountSummaryDTO;
+import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.enums.AccountType;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
+import com.bankingsystem.core.features.accounts.interfaces.dto.HotAccountModeDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionPageDTO;
 import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
 import com.bankingsystem.core.features.accounts.application.AccountService;
+import com.bankingsystem.core.features.accounts.application.HotAccountService;
 import com.bankingsystem.core.features.transactions.application.TransactionQueryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +39,8 @@ public class AccountController {
 
     private final AccountService accountService;
     private final TransactionQueryService transactionQueryService;
+    private final HotAccountService hotAccountService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER')")
@@ -28,6 +48,18 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER')")
+    public ResponseEntity<SliceResponse<AccountSummaryDTO>> listAccountsPage(
+            @RequestParam(required = false) AccountStatus status,
+            @RequestParam(required = false) AccountType type,
+            @RequestParam(required = false) Integer branchId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("accountId"));
+        return ResponseEntity.ok(accountService.listAccounts(status, type, branchId, SliceResponse.pageable(page, size, sort)));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER')")
     public ResponseEntity<AccountResponseDTO> openAccount(@Valid @RequestBody AccountRequestDTO request) {
@@ -48,6 +80,36 @@ public class AccountController {
         return ResponseEntity.ok(transactionQueryService.getTransactionsForAccount(id));
     }
 
+    @GetMapping("/{id}/transactions/page")
+    @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER') or @securityService.isAccountOwner(authentication, #id)")
+    public ResponseEntity<TransactionPageDTO> getAccountTransactionPage(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionQueryService.getTransactionPage(id, cursor, limit));
+    }
+
+    @GetMapping(value = "/{id}/transactions/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER') or @securityService.isAccountOwner(authentication, #id)")
+    public ResponseEntity<StreamingResponseBody> exportAccountTransactions(@PathVariable UUID id) {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            transactionQueryService.streamTransactions(id, tx -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(tx));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + id + ".ndjson\"")
+                .body(body);
+    }
+
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER') or @securityService.isAccountOwner(authentication, #id)")
@@ -61,6 +123,13 @@ public class AccountController {
         return ResponseEntity.ok(accountService.updateAccount(id, request));
     }
 
+    @PutMapping("/{id}/hot-mode")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    public ResponseEntity<AccountResponseDTO> changeHotAccountMode(@PathVariable UUID id, @Valid @RequestBody HotAccountModeDTO request) {
+        hotAccountService.changeHotAccountMode(id, request.getBuckets());
+        return ResponseEntity.ok(accountService.getAccountById(id));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','TELLER','MANAGER')")
     public ResponseEntity<?> closeAccount(@PathVariable UUID id) {
@@ -0,0 +1,22 @@
+package com.bankingsystem.core.features.accounts.interfaces.dto;
+
+import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.enums.AccountType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Row of the staff account listing, projected straight from the query. */
+public record AccountSummaryDTO(
+        UUID accountId,
+        String accountNumber,
+        AccountType accountType,
+        AccountStatus accountStatus,
+        BigDecimal balance,
+        UUID customerId,
+        Integer branchId,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.bankingsystem.core.features.accounts.interfaces.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HotAccountModeDTO {
+    /** Number of balance stripes; 0 switches the account back to single-row mode. */
+    @NotNull(message = "Bucket count is required")
+    @Min(value = 0, message = "Bucket count must not be negative")
+    @Max(value = 64, message = "Bucket count must be at most 64")
+    private Integer buckets;
+}
@@ -13,6 +13,7 @@ import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
 import com.bankingsystem.core.features.auth.domain.repository.VerificationTokenRepository;
 import com.bankingsystem.core.features.auth.application.AuthService;
 import com.bankingsystem.core.features.system.application.EmailService;
+import com.bankingsystem.core.modules.common.security.SessionTokenCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +37,7 @@ public class AuthServiceImpl implements AuthService {
     private final VerificationTokenRepository tokenRepository;
     private final EmailService emailService;
     private final AppProperties appProperties;
+    private final SessionTokenCache sessionTokenCache;
 
     private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
     private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
@@ -143,6 +145,7 @@ public class AuthServiceImpl implements AuthService {
             session.setLogoutTime(LocalDateTime.now());
             session.setIsActive(false);
             sessionRepository.save(session);
+            sessionTokenCache.invalidate(token);
         } else {
             throw new RuntimeException("Invalid session or already logged out.");
         }
@@ -12,6 +12,8 @@ import com.bankingsystem.core.features.system.application.impl.EmailServiceImpl;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.bankingsystem.core.modules.common.security.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,7 +35,13 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
 
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<AuthenticatedUser> principal = AuthenticatedUser.from(auth);
+        if (principal.isPresent()) {
+            return userRepository.findById(principal.get().userId())
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + auth.getName()));
+        }
+        String username = auth.getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     log.error("User not found with username: {}", username);
@@ -150,7 +159,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UUID getCurrentUserId() {
-        return getCurrentUser().getUserId();
+        return AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication())
+                .map(AuthenticatedUser::userId)
+                .orElseGet(() -> getCurrentUser().getUserId());
     }
 
     public List<UserProfileResponse> getAllUsers(String search) {
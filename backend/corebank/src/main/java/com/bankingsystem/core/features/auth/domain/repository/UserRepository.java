@@ -1,6 +1,10 @@
 package com.bankingsystem.core.features.auth.domain.repository;
 
 import com.bankingsystem.core.features.auth.domain.User;
+import com.bankingsystem.core.features.auth.interfaces.dto.UserSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import com.bankingsystem.core.modules.common.security.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,4 +34,21 @@ public interface UserRepository extends JpaRepository<User, UUID> {
             "(LOWER(u.firstName) LIKE %:search% OR LOWER(u.lastName) LIKE %:search% OR LOWER(u.email) LIKE %:search%)")
     List<User> searchByRoleAndNameOrEmail(@Param("roleName") String roleName, @Param("search") String search);
 
+    @Query("SELECT new com.bankingsystem.core.modules.common.security.AuthenticatedUser(" +
+            "u.userId, c.customerId, u.username, r.roleName) " +
+            "FROM User u JOIN u.role r LEFT JOIN Customer c ON c.user = u " +
+            "WHERE u.username = :username")
+    Optional<AuthenticatedUser> findPrincipalByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.bankingsystem.core.features.auth.interfaces.dto.UserSummaryDTO(" +
+            "u.userId, u.username, u.email, u.firstName, u.lastName, r.roleName, u.isActive, u.createdAt) " +
+            "FROM User u JOIN u.role r " +
+            "WHERE (:roleName IS NULL OR r.roleName = :roleName)")
+    Slice<UserSummaryDTO> findSummaries(@Param("roleName") String roleName, Pageable pageable);
+
+    @Query("SELECT new com.bankingsystem.core.features.auth.interfaces.dto.UserSummaryDTO(" +
+            "u.userId, u.username, u.email, u.firstName, u.lastName, r.roleName, u.isActive, u.createdAt) " +
+            "FROM User u JOIN u.role r ORDER BY u.username")
+    List<UserSummaryDTO> findAllSummaries();
+
 }
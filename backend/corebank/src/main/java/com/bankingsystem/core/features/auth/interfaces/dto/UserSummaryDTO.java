@@ -0,0 +1,16 @@
+package com.bankingsystem.core.features.auth.interfaces.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Row of the staff user listing; deliberately carries no credentials. */
+public record UserSummaryDTO(
+        UUID userId,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        String roleName,
+        Boolean isActive,
+        LocalDateTime createdAt) {
+}
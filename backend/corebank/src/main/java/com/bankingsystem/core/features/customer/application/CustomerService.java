@@ -2,12 +2,17 @@ package com.bankingsystem.core.features.customer.application;
 
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerRequestDTO;
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerResponseDTO;
+import com.bankingsystem.core.features.customer.interfaces.dto.CustomerSummaryDTO;
+import com.bankingsystem.core.modules.common.enums.Status;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface CustomerService {
     List<CustomerResponseDTO> getAllCustomers();
+    SliceResponse<CustomerSummaryDTO> listCustomers(Status status, Pageable pageable);
     CustomerResponseDTO getCustomerById(UUID id);
     CustomerResponseDTO createCustomer(CustomerRequestDTO request);
     CustomerResponseDTO updateCustomer(CustomerRequestDTO request);
@@ -2,12 +2,17 @@ package com.bankingsystem.core.features.customer.application.impl;
 
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerRequestDTO;
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerResponseDTO;
+import com.bankingsystem.core.features.customer.interfaces.dto.CustomerSummaryDTO;
+import com.bankingsystem.core.modules.common.enums.Status;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
+import org.springframework.data.domain.Pageable;
 import com.bankingsystem.core.features.customer.domain.Customer;
 import com.bankingsystem.core.features.auth.domain.User;
 import com.bankingsystem.core.modules.common.exceptions.ResourceNotFoundException;
 import com.bankingsystem.core.features.customer.domain.repository.CustomerRepository;
 import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
 import com.bankingsystem.core.features.customer.application.CustomerService;
+import com.bankingsystem.core.modules.common.security.SessionTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,6 +31,7 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
+    private final SessionTokenCache sessionTokenCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -36,6 +42,12 @@ public class CustomerServiceImpl implements CustomerService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<CustomerSummaryDTO> listCustomers(Status status, Pageable pageable) {
+        return SliceResponse.of(customerRepository.findSummaries(status, pageable));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CustomerResponseDTO getCustomerById(UUID id) {
@@ -50,6 +62,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setCreatedAt(LocalDateTime.now());
         customer.setUpdatedAt(LocalDateTime.now());
         customerRepository.save(customer);
+        sessionTokenCache.invalidateUser(customer.getUser().getUserId());
         return mapToDTO(customer);
     }
 
@@ -75,6 +88,9 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
         customerRepository.delete(customer);
+        if (customer.getUser() != null) {
+            sessionTokenCache.invalidateUser(customer.getUser().getUserId());
+        }
     }
 
     @Override
@@ -1,7 +1,13 @@
 package com.bankingsystem.core.features.customer.domain.repository;
 
 import com.bankingsystem.core.features.customer.domain.Customer;
+import com.bankingsystem.core.features.customer.interfaces.dto.CustomerSummaryDTO;
+import com.bankingsystem.core.modules.common.enums.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +18,10 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
     Optional<Customer> findByUserUserId(UUID userId);
 
+    @Query("SELECT new com.bankingsystem.core.features.customer.interfaces.dto.CustomerSummaryDTO(" +
+            "c.customerId, c.firstName, c.lastName, c.email, c.phone, c.status, u.userId, u.username, c.createdAt) " +
+            "FROM Customer c LEFT JOIN c.user u " +
+            "WHERE (:status IS NULL OR c.status = :status)")
+    Slice<CustomerSummaryDTO> findSummaries(@Param("status") Status status, Pageable pageable);
+
 }
@@ -3,11 +3,15 @@ package com.bankingsystem.core.features.customer.interfaces;
 import com.bankingsystem.core.features.customer.application.CustomerService;
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerRequestDTO;
 import com.bankingsystem.core.features.customer.interfaces.dto.CustomerResponseDTO;
+import com.bankingsystem.core.features.customer.interfaces.dto.CustomerSummaryDTO;
 import com.bankingsystem.core.features.kyc.application.KycCaseService;
 import com.bankingsystem.core.modules.common.enums.KycStatus;
+import com.bankingsystem.core.modules.common.enums.Status;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
 import com.bankingsystem.core.modules.common.security.CurrentUserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,6 +38,16 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TELLER','MANAGER')")
+    public ResponseEntity<SliceResponse<CustomerSummaryDTO>> listCustomersPage(
+            @RequestParam(required = false) Status status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("customerId"));
+        return ResponseEntity.ok(customerService.listCustomers(status, SliceResponse.pageable(page, size, sort)));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TELLER','MANAGER')")
     public ResponseEntity<CustomerResponseDTO> createCustomer(@Valid @RequestBody CustomerRequestDTO request) {
@@ -0,0 +1,19 @@
+package com.bankingsystem.core.features.customer.interfaces.dto;
+
+import com.bankingsystem.core.modules.common.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Row of the staff customer listing, projected straight from the query. */
+public record CustomerSummaryDTO(
+        UUID customerId,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        Status status,
+        UUID userId,
+        String username,
+        LocalDateTime createdAt) {
+}
@@ -2,12 +2,16 @@ package com.bankingsystem.core.features.employee.interfaces;
 
 import com.bankingsystem.core.features.employee.interfaces.dto.TellerRequest;
 import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
+import com.bankingsystem.core.features.auth.interfaces.dto.UserSummaryDTO;
 import com.bankingsystem.core.features.employee.application.EmployeeService;
+import com.bankingsystem.core.modules.common.support.paging.SliceResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -27,8 +31,20 @@ public class TellerController {
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<?> listAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<List<UserSummaryDTO>> listAllUsers() {
+        return ResponseEntity.ok(userRepository.findAllSummaries());
+    }
+
+    @GetMapping("/users/page")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<SliceResponse<UserSummaryDTO>> listUsersPage(
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Sort sort = Sort.by(Sort.Order.asc("username"));
+        String roleName = role == null || role.isBlank() ? null : role.toUpperCase();
+        return ResponseEntity.ok(SliceResponse.of(
+                userRepository.findSummaries(roleName, SliceResponse.pageable(page, size, sort))));
     }
 
     @PostMapping
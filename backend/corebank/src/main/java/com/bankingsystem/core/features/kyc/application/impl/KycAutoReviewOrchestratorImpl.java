@@ -4,30 +4,75 @@ import com.bankingsystem.core.features.kyc.application.KycAutoReviewOrchestrator
 import com.bankingsystem.core.features.kyc.application.KycCaseService;
 import com.bankingsystem.core.features.kyc.domain.KycCase;
 import com.bankingsystem.core.features.kyc.domain.KycCheck;
+import com.bankingsystem.core.features.kyc.domain.KycUpload;
 import com.bankingsystem.core.features.kyc.domain.repository.KycCaseRepository;
 import com.bankingsystem.core.features.kyc.domain.repository.KycCheckRepository;
 import com.bankingsystem.core.features.kyc.domain.repository.KycUploadRepository;
 import com.bankingsystem.core.features.kyc.integration.MlKycClient;
+import com.bankingsystem.core.features.kyc.integration.MlKycGuard;
+import com.bankingsystem.core.features.kyc.integration.MlUnavailableException;
 import com.bankingsystem.core.modules.common.enums.KycStatus;
 import com.bankingsystem.core.modules.common.support.storage.FileStorageService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.PageRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * ML auto-review of submitted KYC cases.
+ * <p>
+ * The scheduled batch claims pending cases and feeds them into one long-lived pipeline that
+ * reviews at most {@code kyc.auto-review.parallelism} cases at a time. For each case the images
+ * are located on the {@code kyc-review} workers and streamed to the ML service without blocking a
+ * thread, and the outcome is written in a short transaction of its own; no transaction stays
+ * open across the ML call. A case with the same images as an earlier one reuses that result
+ * through {@link KycMlResultCache} without calling the ML service. Claimed cases wait in the
+ * pipeline's queue, and a batch only claims as many as there is room for under
+ * {@code kyc.auto-review.batch-size}.
+ * <p>
+ * While {@link MlKycGuard} has the ML circuit open, batches claim nothing; while it is
+ * half-open they claim no more than its free probe slots. Cases refused mid-flight are handed
+ * back without an ERROR check, so they are retried once the circuit closes. The open period
+ * doubles while the ML service keeps failing.
+ * <p>
+ * Claims are leases: a claimed case records this node ({@code kyc.auto-review.node-id}) and a
+ * lease expiry ({@code kyc.auto-review.lease-seconds}), renewed while the case is queued or in
+ * flight. A case whose lease runs out, because its node crashed or stalled, is claimed again
+ * by the next batch on any node.
+ */
 @Service
 public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator {
 
     private static final Logger log = LoggerFactory.getLogger(KycAutoReviewOrchestratorImpl.class);
     private static final UUID SYSTEM_REVIEWER = new UUID(0L, 0L);
+    private static final long MAX_IMAGE_BYTES = 6 * 1024 * 1024;
+    private static final List<String> CLAIMABLE = List.of(KycStatus.PENDING.name(), KycStatus.AUTO_REVIEW.name());
 
     private final KycCaseRepository cases;
     private final KycCheckRepository checks;
@@ -35,7 +80,26 @@ public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator
     private final FileStorageService files;
     private final KycCaseService caseService;
     private final MlKycClient ml;
+    private final MlKycGuard guard;
+    private final KycMlResultCache results;
     private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final String nodeId;
+    private final Duration lease;
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+    private final Scheduler workers;
+    private final int parallelism;
+    private volatile Sinks.Many<String> queue;
+    private volatile Disposable pipeline;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final MeterRegistry meterRegistry;
+    private final Timer mlLatency;
+    private final Counter recovered;
+    private final Counter leasesLost;
 
     public KycAutoReviewOrchestratorImpl(
             KycCaseRepository cases,
@@ -44,7 +108,15 @@ public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator
             FileStorageService files,
             KycCaseService caseService,
             MlKycClient ml,
-            ObjectMapper mapper
+            MlKycGuard guard,
+            KycMlResultCache results,
+            ObjectMapper mapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${kyc.auto-review.parallelism:8}") int parallelism,
+            @Value("${kyc.auto-review.batch-size:50}") int batchSize,
+            @Value("${kyc.auto-review.node-id:}") String nodeId,
+            @Value("${kyc.auto-review.lease-seconds:600}") long leaseSeconds
     ) {
         this.cases = cases;
         this.checks = checks;
@@ -52,74 +124,232 @@ public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator
         this.files = files;
         this.caseService = caseService;
         this.ml = ml;
+        this.guard = guard;
+        this.results = results;
         this.mapper = mapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.workers = Schedulers.newBoundedElastic(parallelism, Integer.MAX_VALUE, "kyc-review", 60, true);
+        this.parallelism = parallelism;
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("kyc.auto-review.queued", queued, AtomicInteger::get)
+                .description("Claimed KYC cases waiting for a review slot")
+                .register(meterRegistry);
+        Gauge.builder("kyc.auto-review.in-flight", inFlight, AtomicInteger::get)
+                .description("KYC cases currently being reviewed")
+                .register(meterRegistry);
+        this.mlLatency = Timer.builder("kyc.auto-review.ml")
+                .description("ML aggregate call latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.recovered = Counter.builder("kyc.auto-review.recovered")
+                .description("KYC cases reclaimed after their lease expired")
+                .register(meterRegistry);
+        this.leasesLost = Counter.builder("kyc.auto-review.leases-lost")
+                .description("Reviews dropped because another node had taken over the case")
+                .register(meterRegistry);
+
+        startPipeline();
+    }
+
+    private void startPipeline() {
+        Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+        queue = sink;
+        pipeline = sink.asFlux()
+                .flatMap(caseId -> review(caseId)
+                        .doOnSubscribe(s -> {
+                            queued.decrementAndGet();
+                            inFlight.incrementAndGet();
+                        })
+                        .doFinally(s -> inFlight.decrementAndGet()), parallelism)
+                .subscribe(null, this::restartPipeline);
+    }
+
+    /**
+     * {@link #review} does not fail, so this only runs on a bug. The cases that were queued or in
+     * flight are dropped from {@code held}; their leases are no longer renewed and any node,
+     * this one included, claims them again once the leases expire.
+     */
+    private void restartPipeline(Throwable e) {
+        log.error("KYC review pipeline failed; restarting it. {} claimed case(s) are left to lease expiry",
+                held.size(), e);
+        held.clear();
+        queued.set(0);
+        startPipeline();
     }
 
     @Override
     @Scheduled(fixedDelayString = "${kyc.auto-review.fixed-delay-ms:10000}")
-    @Transactional
     public void runBatch() {
-        var candidates = cases.findCandidatesForAutoReview(
-                List.of(KycStatus.PENDING),
-                PageRequest.of(0, 50)
-        );
-
-        for (KycCase c : candidates) {
-            if (cases.tryMarkProcessing(c.getId()) == 1) {
-                try {
-                    run(c.getId());
-                } catch (Exception ex) {
-                    log.error("Failed to process KYC case {}: {}", c.getId(), ex.getMessage(), ex);
-                    try {
-                        caseService.markStatus(c.getId(), KycStatus.UNDER_REVIEW, "Auto-review failed: " + ex.getMessage());
-                    } catch (Exception e) {
-                        log.error("Failed to mark case {} as failed: {}", c.getId(), e.getMessage(), e);
-                    }
-                }
+        // While the circuit is half-open only its probe slots are claimed, so a recovery window
+        // does not lease and prepare a full batch just to defer all but the probes.
+        int room = Math.min(batchSize, guard.admissible()) - queued.get();
+        if (room <= 0) return;
+
+        List<String> claimed = tx.execute(s -> claim(room));
+        if (claimed == null) return;
+        for (String caseId : claimed) {
+            held.add(caseId);
+            queued.incrementAndGet();
+            if (queue.tryEmitNext(caseId).isFailure()) {
+                queued.decrementAndGet();
+                tx.executeWithoutResult(s -> {
+                    KycCase k = leased(caseId);
+                    if (k != null) unlease(k);
+                });
+                held.remove(caseId);
             }
         }
     }
 
+    /**
+     * Claims up to {@code room} cases for this node: first those whose lease expired (their node
+     * died or hung), then unclaimed ones, oldest first. Rows another node is claiming at the same
+     * moment are skipped rather than waited for, so nodes drain the queue side by side.
+     */
+    private List<String> claim(int room) {
+        Instant now = Instant.now();
+        List<String> ids = new ArrayList<>(cases.lockExpiredLeases(CLAIMABLE, now, room));
+        ids.removeIf(held::contains);
+        int expired = ids.size();
+        if (ids.size() < room) {
+            ids.addAll(cases.lockUnclaimed(CLAIMABLE, room - ids.size()));
+        }
+        if (ids.isEmpty()) return ids;
+        cases.claim(ids, nodeId, now.plus(lease));
+        if (expired > 0) {
+            recovered.increment(expired);
+            log.warn("Reclaimed {} KYC case(s) with an expired lease", expired);
+        }
+        return ids;
+    }
+
+    /** Extends the leases of the cases this node is still working on. */
+    @Scheduled(fixedDelayString = "${kyc.auto-review.lease-renew-ms:60000}")
+    public void renewLeases() {
+        if (held.isEmpty()) return;
+        List<String> ids = List.copyOf(held);
+        Integer renewed = tx.execute(s -> cases.renewLeases(ids, nodeId, Instant.now().plus(lease)));
+        if (renewed != null && renewed < ids.size()) {
+            log.warn("Renewed {} of {} KYC case leases; the rest were finished or taken over", renewed, ids.size());
+        }
+    }
+
     @Override
-    @Transactional
     public KycCase run(String caseId) {
         KycCase c = cases.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("Case not found: " + caseId));
 
-        if (!c.isProcessing()) {
-            if (cases.tryMarkProcessing(c.getId()) != 1) {
-                return c;
-            }
-            c.setProcessing(true);
+        if (!held.add(caseId)) return c;
+        Instant now = Instant.now();
+        Integer claimed = tx.execute(s -> cases.tryClaim(caseId, nodeId, now, now.plus(lease)));
+        if (claimed == null || claimed != 1) {
+            held.remove(caseId);
+            return c;
         }
 
-        switch (c.getStatus()) {
-            case PENDING -> caseService.markStatus(c.getId(), KycStatus.AUTO_REVIEW, "Automation started");
-            case AUTO_REVIEW -> { /* continue */ }
-            default -> {
-                c.setProcessing(false);
-                cases.save(c);
-                return c;
+        review(caseId).block();
+        return cases.findById(caseId).orElse(c);
+    }
+
+    /**
+     * Reviews one claimed case and always gives up its lease. ML and persistence failures leave
+     * an ERROR check and send the case to manual review, as before. The returned Mono never
+     * fails, so one case cannot stop the pipeline; if even the release fails, the case stops
+     * being renewed and is recovered after its lease expires. Every write first checks
+     * that this node still holds the lease, so a node that was presumed dead cannot overwrite
+     * the outcome of the node that took its case over.
+     */
+    private Mono<Void> review(String caseId) {
+        return blocking(() -> prepare(caseId))
+                .flatMap(p -> {
+                    if (p.cached() != null) {
+                        return blocking(() -> complete(caseId, p.inputKey(), p.cached(), true));
+                    }
+                    long start = System.nanoTime();
+                    return ml.aggregateAsync(p.images(), Map.of("caseId", caseId))
+                            .doFinally(s -> mlLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                            .flatMap(res -> blocking(() -> complete(caseId, p.inputKey(), res.body, false)))
+                            .onErrorResume(ex -> blocking(() -> ex instanceof MlUnavailableException
+                                    ? defer(caseId)
+                                    : fail(caseId, ex)));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Failed to process KYC case {}: {}", caseId, ex.getMessage(), ex);
+                    return blocking(() -> {
+                        release(caseId, "Auto-review failed: " + ex.getMessage());
+                        return null;
+                    });
+                })
+                .onErrorResume(ex -> {
+                    // Even releasing failed (e.g. the database is down); the lease will expire.
+                    log.error("Could not release KYC case {}; it is recovered when its lease expires", caseId, ex);
+                    return Mono.empty();
+                })
+                .doFinally(s -> held.remove(caseId))
+                .then();
+    }
+
+    private record Prepared(MlKycClient.KycImages images, String inputKey, MlKycClient.KycAggregateResponse cached) {}
+
+    /**
+     * Moves the case into AUTO_REVIEW, locates its images and looks up an earlier result for the
+     * same inputs; empty if there is nothing to review.
+     */
+    private Prepared prepare(String caseId) {
+        KycCase c = tx.execute(s -> {
+            KycCase k = leased(caseId);
+            if (k == null) return null;
+            switch (k.getStatus()) {
+                case PENDING -> caseService.markStatus(k.getId(), KycStatus.AUTO_REVIEW, "Automation started");
+                case AUTO_REVIEW -> { /* continue */ }
+                default -> {
+                    unlease(k);
+                    return null;
+                }
             }
-        }
+            return k;
+        });
+        if (c == null) return null;
 
-        String selfieB64 = readB64(c.getSelfieId());
-        String frontB64  = readB64(c.getDocFrontId());
-        String backB64   = readB64(c.getDocBackId());
-        String billB64   = readB64(c.getAddressId());
+        String inputKey = inputKey(c);
+        MlKycClient.KycAggregateResponse cached = results.get(inputKey);
+        if (cached != null) return new Prepared(null, inputKey, cached);
 
-        MlKycClient.KycAggregateRequest req = new MlKycClient.KycAggregateRequest(
-                selfieB64, null, frontB64, backB64, billB64,
-                Map.of("caseId", c.getId())
-        );
+        return new Prepared(new MlKycClient.KycImages(
+                image(c.getSelfieId()),
+                image(c.getDocFrontId()),
+                image(c.getDocBackId()),
+                image(c.getAddressId())
+        ), inputKey, null);
+    }
 
+    private String inputKey(KycCase c) {
         try {
-            var res = ml.aggregate(req);
+            List<UUID> ids = List.of(
+                    UUID.fromString(c.getSelfieId()),
+                    UUID.fromString(c.getDocFrontId()),
+                    UUID.fromString(c.getDocBackId()),
+                    UUID.fromString(c.getAddressId()));
+            Map<UUID, KycUpload> byId = new HashMap<>();
+            for (KycUpload u : uploads.findByIdIn(ids)) byId.put(u.getId(), u);
+            return results.key(c.getUserId(), ids.stream().map(byId::get).toList());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-            if (res.body != null && res.body.checks != null) {
-                for (var ch : res.body.checks) {
+    private String complete(String caseId, String inputKey, MlKycClient.KycAggregateResponse body, boolean reused) {
+        Boolean written = tx.execute(s -> {
+            KycCase leased = leased(caseId);
+            if (leased == null) return false;
+            if (body != null && body.checks != null) {
+                for (var ch : body.checks) {
                     KycCheck k = new KycCheck();
-                    k.setCaseId(c.getId());
+                    k.setCaseId(caseId);
                     k.setType(ch.type);
                     k.setScore(ch.score);
                     k.setPassed(ch.passed);
@@ -133,21 +363,39 @@ public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator
                 }
             }
 
-            if (res.body != null && res.body.decision != null) {
-                switch (res.body.decision) {
-                    case "APPROVE" -> caseService.decide(c.getId(), KycStatus.APPROVED, "auto_approved", SYSTEM_REVIEWER);
-                    case "REJECT" -> caseService.decide(c.getId(), KycStatus.REJECTED,
-                            String.join(";", res.body.reasons == null ? List.of() : res.body.reasons), SYSTEM_REVIEWER);
-                    default -> caseService.markStatus(c.getId(), KycStatus.UNDER_REVIEW,
-                            String.join(";", res.body.reasons == null ? List.of() : res.body.reasons));
+            String reasons = body == null ? "" : String.join(";", body.reasons == null ? List.of() : body.reasons);
+            if (body != null && body.decision != null) {
+                switch (body.decision) {
+                    case "APPROVE" -> caseService.decide(caseId, KycStatus.APPROVED, "auto_approved", SYSTEM_REVIEWER);
+                    case "REJECT" -> caseService.decide(caseId, KycStatus.REJECTED, reasons, SYSTEM_REVIEWER);
+                    default -> caseService.markStatus(caseId, KycStatus.UNDER_REVIEW, reasons);
                 }
             } else {
-                caseService.markStatus(c.getId(), KycStatus.UNDER_REVIEW, "ml_response_empty");
+                caseService.markStatus(caseId, KycStatus.UNDER_REVIEW, "ml_response_empty");
             }
+            if (inputKey != null && body != null && body.decision != null) {
+                leased.setMlInputKey(inputKey);
+                leased.setMlDecision(body.decision);
+                leased.setMlReasons(reasons.length() > 500 ? reasons.substring(0, 500) : reasons);
+                leased.setMlReviewedAt(Instant.now());
+            }
+            unlease(leased);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(written)) return caseId;
+        if (!reused) results.put(inputKey, body);
+        meterRegistry.counter("kyc.auto-review.completed",
+                "outcome", body != null && body.decision != null ? body.decision : "EMPTY",
+                "source", reused ? "cache" : "ml").increment();
+        return caseId;
+    }
 
-        } catch (Exception ex) {
+    private String fail(String caseId, Throwable ex) {
+        tx.executeWithoutResult(s -> {
+            KycCase leased = leased(caseId);
+            if (leased == null) return;
             KycCheck err = new KycCheck();
-            err.setCaseId(c.getId());
+            err.setCaseId(caseId);
             err.setType("ERROR");
             err.setScore(0.0);
             err.setPassed(false);
@@ -155,28 +403,101 @@ public class KycAutoReviewOrchestratorImpl implements KycAutoReviewOrchestrator
             err.setCreatedAt(Instant.now());
             checks.save(err);
 
-            caseService.markStatus(c.getId(), KycStatus.UNDER_REVIEW, "ml_unavailable");
-        } finally {
-            cases.findById(caseId).ifPresent(k -> {
-                k.setProcessing(false);
-                cases.save(k);
+            caseService.markStatus(caseId, KycStatus.UNDER_REVIEW, "ml_unavailable");
+            unlease(leased);
+        });
+        meterRegistry.counter("kyc.auto-review.completed", "outcome", "ERROR", "source", "ml").increment();
+        return caseId;
+    }
+
+    /**
+     * Gives the case back while the ML service is unavailable. It stays in AUTO_REVIEW with no
+     * check recorded and is claimed again by a later batch once the circuit lets calls through.
+     */
+    private String defer(String caseId) {
+        tx.executeWithoutResult(s -> {
+            KycCase leased = leased(caseId);
+            if (leased != null) unlease(leased);
+        });
+        meterRegistry.counter("kyc.auto-review.deferred").increment();
+        return caseId;
+    }
+
+    /** Last resort when a case could not be reviewed at all: hand it to a human and unclaim it. */
+    private void release(String caseId, String note) {
+        try {
+            tx.executeWithoutResult(s -> {
+                KycCase leased = leased(caseId);
+                if (leased == null) return;
+                caseService.markStatus(caseId, KycStatus.UNDER_REVIEW, note);
+                unlease(leased);
             });
+        } catch (Exception e) {
+            log.error("Failed to mark case {} as failed: {}", caseId, e.getMessage(), e);
+            try {
+                tx.executeWithoutResult(s -> {
+                    KycCase leased = leased(caseId);
+                    if (leased != null) unlease(leased);
+                });
+            } catch (Exception unleaseFailed) {
+                log.error("Failed to unclaim case {}; it is recovered when its lease expires", caseId, unleaseFailed);
+            }
+        }
+    }
+
+    /** Locks the case and returns it if this node still holds its lease, otherwise {@code null}. */
+    private KycCase leased(String caseId) {
+        KycCase k = cases.findByIdForUpdate(caseId).orElse(null);
+        if (k == null) return null;
+        if (!k.isProcessing() || !nodeId.equals(k.getLeaseOwner())) {
+            leasesLost.increment();
+            log.warn("Lease on KYC case {} is now held by {}; dropping this node's review", caseId, k.getLeaseOwner());
+            return null;
         }
+        return k;
+    }
 
-        return cases.findById(caseId).orElse(c);
+    private void unlease(KycCase k) {
+        k.setProcessing(false);
+        k.setLeaseOwner(null);
+        k.setLeaseUntil(null);
+        cases.save(k);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        String id = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
     }
 
-    private String readB64(String uuidStr) {
+    private <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(workers);
+    }
+
+    /** Stored file of an upload, or {@code null} if it is missing, empty or larger than 6MB. */
+    private Path image(String uuidStr) {
         if (uuidStr == null || uuidStr.isBlank()) return null;
         try {
-            byte[] data = files.read(UUID.fromString(uuidStr));
-            if (data == null || data.length == 0) return null;
-            if (data.length > 6 * 1024 * 1024) return null;
-            return Base64.getEncoder().encodeToString(data);
+            Path path = files.locate(UUID.fromString(uuidStr));
+            long size = Files.size(path);
+            if (size == 0 || size > MAX_IMAGE_BYTES) return null;
+            return path;
         } catch (Exception e) {
             return null;
         }
     }
 
     private static String safe(String s) { return s == null ? "" : s.replace("\"", "'"); }
+
+    @PreDestroy
+    void shutdown() {
+        queue.tryEmitComplete();
+        pipeline.dispose();
+        workers.dispose();
+    }
 }
@@ -0,0 +1,147 @@
+package com.bankingsystem.core.features.kyc.application.impl;
+
+import com.bankingsystem.core.features.kyc.domain.KycCase;
+import com.bankingsystem.core.features.kyc.domain.KycCheck;
+import com.bankingsystem.core.features.kyc.domain.KycUpload;
+import com.bankingsystem.core.features.kyc.domain.repository.KycCaseRepository;
+import com.bankingsystem.core.features.kyc.domain.repository.KycCheckRepository;
+import com.bankingsystem.core.features.kyc.integration.MlKycClient;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ML aggregate results keyed by their inputs: the SHA-256 of {@code kyc.ml.model-version}, the
+ * case's user and the stored checksums of the four case images. A case whose images are
+ * byte-for-byte those of an earlier case of the same user (a resubmission, or a retry of the same
+ * uploads) gets the earlier result instead of a new ML call. Another user submitting the same
+ * documents never reuses that result; the case goes to the ML service like any other.
+ * <p>
+ * Recent results are held in memory; on a miss the last case reviewed with the same key within
+ * {@code kyc.ml.result-cache.ttl-hours} is looked up and its checks are reused. Only successful
+ * ML responses are cached. Bump the model version whenever the ML models or decision policy
+ * change, which makes every earlier key unreachable.
+ */
+@Component
+public class KycMlResultCache {
+
+    private static final TypeReference<Map<String, Object>> DETAILS = new TypeReference<>() {};
+
+    private final KycCaseRepository cases;
+    private final KycCheckRepository checks;
+    private final ObjectMapper mapper;
+    private final String modelVersion;
+    private final Duration ttl;
+    private final Cache<String, MlKycClient.KycAggregateResponse> results;
+    private final Counter storedHits;
+
+    public KycMlResultCache(KycCaseRepository cases,
+                            KycCheckRepository checks,
+                            ObjectMapper mapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${kyc.ml.model-version:0.1.0}") String modelVersion,
+                            @Value("${kyc.ml.result-cache.ttl-hours:24}") long ttlHours,
+                            @Value("${kyc.ml.result-cache.max-size:10000}") long maxSize) {
+        this.cases = cases;
+        this.checks = checks;
+        this.mapper = mapper;
+        this.modelVersion = modelVersion;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "kyc.ml.results");
+        this.storedHits = Counter.builder("kyc.ml.results.stored-hits")
+                .description("ML results reused from an earlier case after an in-memory miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Input key of a case, or {@code null} if the user is unknown or any of its uploads is missing
+     * or has no checksum. {@code uploads} are the case's selfie, document front, document back and
+     * address proof.
+     */
+    public String key(UUID userId, List<KycUpload> uploads) {
+        if (userId == null) return null;
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        sha256.update(modelVersion.getBytes(StandardCharsets.UTF_8));
+        sha256.update((byte) '\n');
+        sha256.update(userId.toString().getBytes(StandardCharsets.US_ASCII));
+        for (KycUpload u : uploads) {
+            if (u == null || u.getChecksumSha256() == null || u.getChecksumSha256().isBlank()) return null;
+            sha256.update((byte) '\n');
+            sha256.update(u.getChecksumSha256().getBytes(StandardCharsets.US_ASCII));
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /** Earlier result for {@code key}, or {@code null}. Reads the database on an in-memory miss. */
+    public MlKycClient.KycAggregateResponse get(String key) {
+        if (key == null) return null;
+        MlKycClient.KycAggregateResponse hit = results.getIfPresent(key);
+        if (hit != null) return hit;
+
+        KycCase prior = cases.findFirstByMlInputKeyAndMlReviewedAtAfterOrderByMlReviewedAtDesc(
+                key, Instant.now().minus(ttl)).orElse(null);
+        if (prior == null) return null;
+        MlKycClient.KycAggregateResponse stored = fromCase(prior);
+        if (stored == null) return null;
+        results.put(key, stored);
+        storedHits.increment();
+        return stored;
+    }
+
+    public void put(String key, MlKycClient.KycAggregateResponse response) {
+        if (key == null || response == null || response.decision == null) return;
+        results.put(key, response);
+    }
+
+    private MlKycClient.KycAggregateResponse fromCase(KycCase prior) {
+        if (prior.getMlDecision() == null) return null;
+        MlKycClient.KycAggregateResponse r = new MlKycClient.KycAggregateResponse();
+        r.decision = prior.getMlDecision();
+        r.reasons = prior.getMlReasons() == null || prior.getMlReasons().isBlank()
+                ? List.of()
+                : Arrays.asList(prior.getMlReasons().split(";"));
+        r.checks = new ArrayList<>();
+        for (KycCheck k : checks.findByCaseId(prior.getId())) {
+            if ("ERROR".equals(k.getType())) continue;
+            MlKycClient.Check c = new MlKycClient.Check();
+            c.type = k.getType();
+            c.score = k.getScore();
+            c.passed = k.getPassed();
+            try {
+                c.details = k.getDetailsJson() == null ? Map.of() : mapper.readValue(k.getDetailsJson(), DETAILS);
+            } catch (Exception e) {
+                c.details = Map.of();
+            }
+            r.checks.add(c);
+        }
+        return r;
+    }
+}
@@ -15,7 +15,9 @@ import java.util.UUID;
         indexes = {
                 @Index(name = "idx_kyc_cases_user_id", columnList = "user_id"),
                 @Index(name = "idx_kyc_cases_status", columnList = "status"),
-                @Index(name = "idx_kyc_cases_user_created", columnList = "user_id,created_at")
+                @Index(name = "idx_kyc_cases_user_created", columnList = "user_id,created_at"),
+                @Index(name = "idx_kyc_cases_ml_input", columnList = "ml_input_key,ml_reviewed_at"),
+                @Index(name = "idx_kyc_cases_claim", columnList = "processing,status,created_at")
         })
 public class KycCase {
 
@@ -65,6 +67,26 @@ public class KycCase {
     @Column(name = "processing", nullable = false)
     private boolean processing = false;
 
+    /** Node reviewing the case while {@code processing}; the claim lapses at {@code leaseUntil}. */
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    /** SHA-256 over the model version and the upload checksums the ML result was computed from. */
+    @Column(name = "ml_input_key", length = 64)
+    private String mlInputKey;
+
+    @Column(name = "ml_decision", length = 20)
+    private String mlDecision;
+
+    @Column(name = "ml_reasons", length = 500)
+    private String mlReasons;
+
+    @Column(name = "ml_reviewed_at")
+    private Instant mlReviewedAt;
+
     @PrePersist
     public void prePersist() {
         if (this.id == null) this.id = UUID.randomUUID().toString();
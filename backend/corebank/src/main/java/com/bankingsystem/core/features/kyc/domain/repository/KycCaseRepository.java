@@ -2,13 +2,16 @@ package com.bankingsystem.core.features.kyc.domain.repository;
 
 import com.bankingsystem.core.features.kyc.domain.KycCase;
 import com.bankingsystem.core.modules.common.enums.KycStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -21,22 +24,70 @@ public interface KycCaseRepository extends JpaRepository<KycCase, String> {
     Page<KycCase> findAllByStatus(KycStatus status, Pageable pageable);
     Optional<KycCase> findFirstByUserIdAndStatusInOrderByCreatedAtDesc(UUID userId, Collection<KycStatus> statuses);
     List<KycCase> findTop50ByStatusOrderByCreatedAtAsc(KycStatus status);
+    Optional<KycCase> findFirstByMlInputKeyAndMlReviewedAtAfterOrderByMlReviewedAtDesc(String mlInputKey, Instant since);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT kc FROM KycCase kc WHERE kc.id = :id")
+    Optional<KycCase> findByIdForUpdate(@Param("id") String id);
+
+    /** Locks up to {@code limit} unclaimed cases, oldest first, skipping rows other nodes hold; served by {@code idx_kyc_cases_claim}. */
+    @Query(value = """
+       SELECT id FROM kyc_cases
+        WHERE processing = false
+          AND status IN (:statuses)
+        ORDER BY created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+       """, nativeQuery = true)
+    List<String> lockUnclaimed(@Param("statuses") Collection<String> statuses, @Param("limit") int limit);
+
+    /**
+     * Locks up to {@code limit} claimed cases whose lease ran out, i.e. whose node died or hung.
+     * A claimed case with no lease was claimed before leases existed and counts as expired.
+     */
+    @Query(value = """
+       SELECT id FROM kyc_cases
+        WHERE processing = true
+          AND status IN (:statuses)
+          AND (lease_until IS NULL OR lease_until < :now)
+        ORDER BY created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+       """, nativeQuery = true)
+    List<String> lockExpiredLeases(@Param("statuses") Collection<String> statuses,
+                                   @Param("now") Instant now,
+                                   @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+       update KycCase kc
+          set kc.processing = true,
+              kc.leaseOwner = :owner,
+              kc.leaseUntil = :until
+        where kc.id in :ids
+       """)
+    int claim(@Param("ids") Collection<String> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    /** Claims one case unless another node holds an unexpired lease on it; a missing lease counts as expired. */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
        update KycCase kc
-          set kc.processing = true
+          set kc.processing = true,
+              kc.leaseOwner = :owner,
+              kc.leaseUntil = :until
         where kc.id = :id
-          and kc.processing = false
+          and (kc.processing = false or kc.leaseUntil is null or kc.leaseUntil < :now)
        """)
-    int tryMarkProcessing(@Param("id") String id);
+    int tryClaim(@Param("id") String id, @Param("owner") String owner,
+                 @Param("now") Instant now, @Param("until") Instant until);
 
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
-       select kc from KycCase kc
-        where kc.processing = false
-          and kc.status in :statuses
-        order by kc.createdAt asc
+       update KycCase kc
+          set kc.leaseUntil = :until
+        where kc.id in :ids
+          and kc.leaseOwner = :owner
+          and kc.processing = true
        """)
-    List<KycCase> findCandidatesForAutoReview(@Param("statuses") List<KycStatus> statuses,
-                                              Pageable page);
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("owner") String owner, @Param("until") Instant until);
 }
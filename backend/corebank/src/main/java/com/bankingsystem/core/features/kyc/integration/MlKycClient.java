@@ -1,37 +1,143 @@
 package com.bankingsystem.core.features.kyc.integration;
 
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Client for the ML service's KYC aggregate endpoint.
+ * <p>
+ * Images are sent either as base64 strings in one JSON body ({@code kyc.ml.transport=json}, what
+ * older ML service versions accept) or as multipart parts ({@code multipart}, the default). In
+ * multipart mode each image is streamed from disk in {@code kyc.ml.chunk-bytes} pooled direct
+ * buffers, so a case no longer holds the raw bytes, their base64 copy and the serialized JSON on
+ * the heap at once.
+ * <p>
+ * Every call goes through {@link MlKycGuard}; while the ML service is failing, calls fail fast
+ * with {@link MlUnavailableException}.
+ */
 @Component
 public class MlKycClient {
 
     private final WebClient client;
-
-    public MlKycClient(WebClient mlWebClient) {
+    private final MlKycGuard guard;
+    private final boolean multipart;
+    private final int chunkBytes;
+    private final DataBufferFactory buffers = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    public MlKycClient(WebClient mlWebClient,
+                       MlKycGuard guard,
+                       @Value("${kyc.ml.transport:multipart}") String transport,
+                       @Value("${kyc.ml.chunk-bytes:65536}") int chunkBytes) {
         this.client = mlWebClient;
+        this.guard = guard;
+        this.multipart = switch (transport) {
+            case "multipart" -> true;
+            case "json" -> false;
+            default -> throw new IllegalArgumentException("Unknown kyc.ml.transport: " + transport);
+        };
+        this.chunkBytes = chunkBytes;
+    }
+
+    /** Sends the stored images with the configured transport; any image may be {@code null}. */
+    public Mono<KycAggregateResult> aggregateAsync(KycImages images, Map<String, String> meta) {
+        if (!multipart) {
+            return Mono.fromCallable(() -> new KycAggregateRequest(
+                            b64(images.selfie), null, b64(images.docFront), b64(images.docBack),
+                            b64(images.addressProof), meta))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(this::aggregateAsync);
+        }
+        return guard.protect(() -> postMultipart(images, meta));
+    }
+
+    private Mono<KycAggregateResult> postMultipart(KycImages images, Map<String, String> meta) {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        part(body, "selfie", images.selfie);
+        part(body, "docFrontImage", images.docFront);
+        part(body, "docBackImage", images.docBack);
+        // The aggregate does not score address proofs, so that image is not uploaded.
+        if (meta != null) meta.forEach(body::part);
+
+        return client.post()
+                .uri("/api/v1/kyc/aggregate/multipart")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .retrieve()
+                .toEntity(KycAggregateResponse.class)
+                .map(resp -> new KycAggregateResult(
+                        resp.getBody(),
+                        resp.getHeaders().getFirst("X-Request-ID")));
+    }
+
+    private void part(MultipartBodyBuilder body, String name, Path file) {
+        if (file == null) return;
+        body.asyncPart(name, DataBufferUtils.read(file, buffers, chunkBytes), DataBuffer.class)
+                .filename(file.getFileName().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static String b64(Path file) throws IOException {
+        return file == null ? null : Base64.getEncoder().encodeToString(Files.readAllBytes(file));
     }
 
     public KycAggregateResult aggregate(KycAggregateRequest req) {
-        var resp = client.post()
+        return aggregateAsync(req).block();
+    }
+
+    /** Non-blocking variant; the response is handled on the WebClient's event loop. */
+    public Mono<KycAggregateResult> aggregateAsync(KycAggregateRequest req) {
+        return guard.protect(() -> postJson(req));
+    }
+
+    private Mono<KycAggregateResult> postJson(KycAggregateRequest req) {
+        return client.post()
                 .uri("/api/v1/kyc/aggregate")
                 .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .bodyValue(req)
                 .retrieve()
                 .toEntity(KycAggregateResponse.class)
-                .block();
-
-        String requestId = resp.getHeaders().getFirst("X-Request-ID"); // your current code expects this header
-        return new KycAggregateResult(resp.getBody(), requestId);
+                .map(resp -> new KycAggregateResult(
+                        resp.getBody(),
+                        resp.getHeaders().getFirst("X-Request-ID"))); // your current code expects this header
     }
 
     // ---------- DTOs ----------
 
+    /** Local files of the case images; {@code null} for an image that is not sent. */
+    public static final class KycImages {
+        public final Path selfie;
+        public final Path docFront;
+        public final Path docBack;
+        public final Path addressProof;
+
+        public KycImages(Path selfie, Path docFront, Path docBack, Path addressProof) {
+            this.selfie = selfie;
+            this.docFront = docFront;
+            this.docBack = docBack;
+            this.addressProof = addressProof;
+        }
+    }
+
     public static final class KycAggregateRequest {
         public String selfie;
         public String docPortraitImage;
@@ -0,0 +1,358 @@
+package com.bankingsystem.core.features.kyc.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for ML service calls: an AIMD concurrency limit and a circuit breaker.
+ * <p>
+ * The limit starts at {@code kyc.ml.limiter.initial-limit} and moves between 1 and
+ * {@code kyc.ml.limiter.max-limit}. A call that succeeds within
+ * {@code kyc.ml.limiter.latency-threshold-ms} while the limit is at least half used raises it
+ * by one. A failed or slower call multiplies it by {@code kyc.ml.limiter.backoff-ratio}. Calls
+ * over the limit wait for a permit without holding a thread.
+ * <p>
+ * The breaker looks at the last {@code kyc.ml.circuit.window} calls. Failures and slow calls
+ * both count. Once at least {@code min-calls} calls have been seen and the failure rate reaches
+ * {@code failure-rate}, the circuit opens for {@code open-ms}. While it is open, calls fail at
+ * once with {@link MlUnavailableException}, and so do the calls that were waiting. After the
+ * open period, {@code half-open-calls} probes are let through. If all of them succeed the
+ * circuit closes; otherwise it opens again for twice as long, up to {@code max-open-ms}. A probe
+ * that ends without a verdict (a request error or a cancel) frees its slot for another probe.
+ * <p>
+ * The state is exported as {@code kyc.ml.*} metrics and at {@code /actuator/kycml}.
+ */
+@Component
+@Endpoint(id = "kycml")
+public class MlKycGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(MlKycGuard.class);
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private enum Outcome { SUCCESS, DROP, IGNORE }
+
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final boolean[] window;
+    private final int minCalls;
+    private final double failureRate;
+    private final Duration baseOpen;
+    private final Duration maxOpen;
+    private final int halfOpenCalls;
+
+    // guarded by this
+    private double limit;
+    private int inFlight;
+    private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+    private State state = State.CLOSED;
+    private int windowPos;
+    private int windowCount;
+    private int windowFailures;
+    private Duration openFor;
+    private Instant openUntil;
+    private int probesStarted;
+    private int probesSucceeded;
+    private int halfOpenRound;
+
+    private final Counter rejected;
+    private final MeterRegistry meterRegistry;
+
+    public MlKycGuard(MeterRegistry meterRegistry,
+                      @Value("${kyc.ml.limiter.initial-limit:4}") int initialLimit,
+                      @Value("${kyc.ml.limiter.max-limit:${kyc.auto-review.parallelism:8}}") int maxLimit,
+                      @Value("${kyc.ml.limiter.backoff-ratio:0.9}") double backoffRatio,
+                      @Value("${kyc.ml.limiter.latency-threshold-ms:30000}") long latencyThresholdMs,
+                      @Value("${kyc.ml.circuit.window:20}") int window,
+                      @Value("${kyc.ml.circuit.min-calls:10}") int minCalls,
+                      @Value("${kyc.ml.circuit.failure-rate:0.5}") double failureRate,
+                      @Value("${kyc.ml.circuit.open-ms:30000}") long openMs,
+                      @Value("${kyc.ml.circuit.max-open-ms:600000}") long maxOpenMs,
+                      @Value("${kyc.ml.circuit.half-open-calls:2}") int halfOpenCalls) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(1, initialLimit));
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = Duration.ofMillis(latencyThresholdMs).toNanos();
+        this.window = new boolean[Math.max(1, window)];
+        this.minCalls = Math.min(minCalls, this.window.length);
+        this.failureRate = failureRate;
+        this.baseOpen = Duration.ofMillis(openMs);
+        this.maxOpen = Duration.ofMillis(Math.max(openMs, maxOpenMs));
+        this.openFor = baseOpen;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("kyc.ml.limiter.limit", this, g -> g.snapshot().limit())
+                .description("Current ML concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ml.limiter.in-flight", this, g -> g.snapshot().inFlight())
+                .description("ML calls in progress")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ml.limiter.waiting", this, g -> g.snapshot().waiting())
+                .description("ML calls waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ml.circuit.state", this, g -> g.snapshot().state().ordinal())
+                .description("ML circuit state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("kyc.ml.circuit.rejected")
+                .description("ML calls refused because the circuit was open")
+                .register(meterRegistry);
+    }
+
+    /** Runs {@code call} once admitted; fails with {@link MlUnavailableException} if the circuit is open. */
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        return Mono.<Permit>create(this::acquire)
+                .flatMap(permit -> Mono.defer(call)
+                        .doOnSuccess(v -> permit.complete(elapsedOutcome(permit)))
+                        .doOnError(e -> permit.complete(classify(e)))
+                        .doOnCancel(() -> permit.complete(Outcome.IGNORE)));
+    }
+
+    /** True while calls are being refused; callers can hold work back instead of trying. */
+    public synchronized boolean isOpen() {
+        return switch (state) {
+            case OPEN -> Instant.now().isBefore(openUntil);
+            case HALF_OPEN -> probesStarted >= halfOpenCalls;
+            case CLOSED -> false;
+        };
+    }
+
+    /**
+     * How many new calls would be admitted right now: none while open, the unused probe slots
+     * while half-open, unbounded ({@link Integer#MAX_VALUE}) while closed. Callers that batch work
+     * use it to avoid claiming more than the circuit will let through.
+     */
+    public synchronized int admissible() {
+        return switch (state) {
+            case OPEN -> Instant.now().isBefore(openUntil) ? 0 : halfOpenCalls;
+            case HALF_OPEN -> Math.max(0, halfOpenCalls - probesStarted);
+            case CLOSED -> Integer.MAX_VALUE;
+        };
+    }
+
+    public record Snapshot(State state, double limit, int inFlight, int waiting,
+                           int windowCalls, int windowFailures, Instant openUntil) {}
+
+    @ReadOperation
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(state, limit, inFlight, waiting.size(), windowCount, windowFailures,
+                state == State.OPEN ? openUntil : null);
+    }
+
+    private void acquire(MonoSink<Permit> sink) {
+        Permit granted = null;
+        boolean refuse = false;
+        synchronized (this) {
+            if (state == State.OPEN && !Instant.now().isBefore(openUntil)) {
+                transition(State.HALF_OPEN);
+            }
+            switch (state) {
+                case OPEN -> refuse = true;
+                case HALF_OPEN -> {
+                    if (probesStarted < halfOpenCalls) {
+                        probesStarted++;
+                        inFlight++;
+                        granted = new Permit(halfOpenRound);
+                    } else {
+                        refuse = true;
+                    }
+                }
+                case CLOSED -> {
+                    if (inFlight < (int) limit) {
+                        inFlight++;
+                        granted = new Permit(-1);
+                    } else {
+                        Waiter w = new Waiter(sink);
+                        waiting.add(w);
+                        sink.onCancel(() -> cancel(w));
+                    }
+                }
+            }
+        }
+        if (refuse) {
+            rejected.increment();
+            sink.error(new MlUnavailableException("ML circuit is open"));
+        } else if (granted != null) {
+            Permit permit = granted;
+            sink.onCancel(() -> permit.complete(Outcome.IGNORE));
+            sink.success(permit);
+        }
+    }
+
+    /**
+     * A waiting caller went away. If a permit was already handed to it but not yet delivered,
+     * the permit is returned; delivering to a cancelled sink would drop it and leak the slot.
+     */
+    private void cancel(Waiter w) {
+        Permit granted;
+        synchronized (this) {
+            waiting.remove(w);
+            granted = w.granted;
+        }
+        if (granted != null) granted.complete(Outcome.IGNORE);
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        List<Waiter> grant = new ArrayList<>();
+        List<Waiter> refuse = new ArrayList<>();
+        synchronized (this) {
+            int used = inFlight;
+            inFlight--;
+
+            switch (outcome) {
+                case SUCCESS -> {
+                    if (used * 2 >= limit) limit = Math.min(maxLimit, limit + 1);
+                }
+                case DROP -> limit = Math.max(1, limit * backoffRatio);
+                case IGNORE -> { }
+            }
+
+            // Probes admitted in an earlier half-open round no longer count.
+            if (permit.isProbe() && state == State.HALF_OPEN && permit.round == halfOpenRound) {
+                switch (outcome) {
+                    case DROP -> {
+                        openFor = min(openFor.multipliedBy(2), maxOpen);
+                        transition(State.OPEN);
+                    }
+                    case SUCCESS -> {
+                        if (++probesSucceeded >= halfOpenCalls) {
+                            openFor = baseOpen;
+                            transition(State.CLOSED);
+                        }
+                    }
+                    // Says nothing about the ML service: free the slot for another probe.
+                    case IGNORE -> probesStarted--;
+                }
+            } else if (outcome != Outcome.IGNORE && !permit.isProbe() && state == State.CLOSED) {
+                record(outcome == Outcome.DROP);
+                if (windowCount >= minCalls && windowFailures >= failureRate * windowCount) {
+                    transition(State.OPEN);
+                }
+            }
+
+            if (state == State.CLOSED) {
+                while (inFlight < (int) limit && !waiting.isEmpty()) {
+                    inFlight++;
+                    Waiter w = waiting.poll();
+                    w.granted = new Permit(-1);
+                    grant.add(w);
+                }
+            } else {
+                refuse.addAll(waiting);
+                waiting.clear();
+            }
+        }
+        for (Waiter w : grant) w.sink.success(w.granted);
+        for (Waiter w : refuse) {
+            rejected.increment();
+            w.sink.error(new MlUnavailableException("ML circuit is open"));
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowPos]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowPos] = failure;
+        if (failure) windowFailures++;
+        windowPos = (windowPos + 1) % window.length;
+    }
+
+    private void transition(State to) {
+        if (state == to) return;
+        log.warn("ML circuit {} -> {}{}", state, to, to == State.OPEN ? " for " + openFor : "");
+        state = to;
+        switch (to) {
+            case OPEN -> openUntil = Instant.now().plus(openFor);
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+                halfOpenRound++;
+            }
+            case CLOSED -> {
+                windowPos = 0;
+                windowCount = 0;
+                windowFailures = 0;
+            }
+        }
+        meterRegistry.counter("kyc.ml.circuit.transitions", "to", to.name()).increment();
+    }
+
+    private Outcome elapsedOutcome(Permit permit) {
+        return System.nanoTime() - permit.startNanos > latencyThresholdNanos ? Outcome.DROP : Outcome.SUCCESS;
+    }
+
+    /** Server-side and transport failures count against the ML service; request errors do not. */
+    private static Outcome classify(Throwable e) {
+        if (e instanceof WebClientResponseException r) {
+            int code = r.getStatusCode().value();
+            return code >= 500 || code == 429 ? Outcome.DROP : Outcome.IGNORE;
+        }
+        if (e instanceof WebClientRequestException
+                || e instanceof TimeoutException
+                || e instanceof ReadTimeoutException
+                || e.getCause() instanceof ReadTimeoutException) {
+            return Outcome.DROP;
+        }
+        return Outcome.IGNORE;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /** A caller waiting for a permit; {@code granted} is set under the guard's lock. */
+    private static final class Waiter {
+        final MonoSink<Permit> sink;
+        Permit granted;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        /** Half-open round the probe was admitted in, or -1 for a regular call. */
+        final int round;
+        final long startNanos = System.nanoTime();
+        final AtomicBoolean done = new AtomicBoolean();
+
+        Permit(int round) {
+            this.round = round;
+        }
+
+        boolean isProbe() {
+            return round >= 0;
+        }
+
+        void complete(Outcome outcome) {
+            if (done.compareAndSet(false, true)) release(this, outcome);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.bankingsystem.core.features.kyc.integration;
+
+/** The ML service is not being called right now because its circuit is open. */
+public class MlUnavailableException extends RuntimeException {
+    public MlUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankingsystem.core.features.transactions.application;
+
+import com.bankingsystem.core.features.transactions.interfaces.dto.CashTransactionRequestDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransferRequestDTO;
+
+import java.util.List;
+
+public interface LedgerPostingService {
+    TransactionResponseDTO deposit(CashTransactionRequestDTO request);
+
+    TransactionResponseDTO withdraw(CashTransactionRequestDTO request);
+
+    /** Returns the debit leg followed by the credit leg. */
+    List<TransactionResponseDTO> transfer(TransferRequestDTO request);
+}
@@ -1,10 +1,18 @@
 package com.bankingsystem.core.features.transactions.application;
 
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionPageDTO;
 import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TransactionQueryService {
     List<TransactionResponseDTO> getTransactionsForAccount(UUID accountId);
+
+    /** Newest-first keyset page; pass the previous page's {@code nextCursor} to continue. */
+    TransactionPageDTO getTransactionPage(UUID accountId, String cursor, int limit);
+
+    /** Feeds the whole history, newest first, to {@code sink} one keyset page at a time. */
+    void streamTransactions(UUID accountId, Consumer<TransactionResponseDTO> sink);
 }
@@ -0,0 +1,217 @@
+package com.bankingsystem.core.features.transactions.application.impl;
+
+import com.bankingsystem.core.features.accounts.domain.Account;
+import com.bankingsystem.core.features.accounts.domain.repository.AccountBalanceBucketRepository;
+import com.bankingsystem.core.features.accounts.domain.repository.AccountRepository;
+import com.bankingsystem.core.features.transactions.application.LedgerPostingService;
+import com.bankingsystem.core.features.transactions.domain.Transaction;
+import com.bankingsystem.core.features.transactions.domain.repository.TransactionRepository;
+import com.bankingsystem.core.features.transactions.interfaces.dto.CashTransactionRequestDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransferRequestDTO;
+import com.bankingsystem.core.modules.common.enums.AccountStatus;
+import com.bankingsystem.core.modules.common.exceptions.BusinessException;
+import com.bankingsystem.core.modules.common.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Posts money movements against {@link Account#getBalance()} and appends the matching
+ * {@link Transaction} rows in the same database transaction.
+ * <p>
+ * Every posting takes row locks ({@code SELECT ... FOR UPDATE}) on the accounts it touches, always
+ * in ascending {@code accountId} order, so concurrent transfers between the same accounts
+ * serialize instead of losing updates or deadlocking.
+ * <p>
+ * Credits to a hot account ({@link Account#isHotAccount()}) take a shared lock on the account row
+ * instead of an exclusive one and increment a random balance bucket; their ledger row has no
+ * {@code balanceAfter}. Shared locks do not block each other, so credits still run in parallel,
+ * but they are taken before any bucket row, the same order as folds and mode changes use
+ * (account, then buckets). The ledger insert needs a shared lock on the account for its foreign
+ * key anyway, so taking it up front adds no waiting. Debits of a hot account still lock the
+ * account row exclusively and check funds against balance plus pending buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(isolation = Isolation.READ_COMMITTED)
+public class LedgerPostingServiceImpl implements LedgerPostingService {
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceBucketRepository bucketRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public TransactionResponseDTO deposit(CashTransactionRequestDTO request) {
+        validateAmount(request.getAmount());
+        String description = description(request.getDescription(), "Deposit");
+        if (isHot(request.getAccountId())) {
+            Account account = lockHotForCredit(request.getAccountId());
+            return mapToDTO(creditHot(account, Transaction.TransactionType.DEPOSIT, request.getAmount(), description));
+        }
+        Account account = lockActive(request.getAccountId());
+        return mapToDTO(post(account, Transaction.TransactionType.DEPOSIT, request.getAmount(), description));
+    }
+
+    @Override
+    public TransactionResponseDTO withdraw(CashTransactionRequestDTO request) {
+        validateAmount(request.getAmount());
+        Account account = lockActive(request.getAccountId());
+        requireFunds(account, request.getAmount());
+        return mapToDTO(post(account, Transaction.TransactionType.WITHDRAWAL, request.getAmount().negate(),
+                description(request.getDescription(), "Withdrawal")));
+    }
+
+    @Override
+    public List<TransactionResponseDTO> transfer(TransferRequestDTO request) {
+        validateAmount(request.getAmount());
+        UUID fromId = request.getFromAccountId();
+        UUID toId = request.getToAccountId();
+        if (fromId.equals(toId)) {
+            throw new BusinessException("ERR_SAME_ACCOUNT", "Source and destination accounts must differ");
+        }
+
+        // Lock in a global order so two opposite transfers can never wait on each other. A hot
+        // destination is only share-locked; its credit goes to a bucket.
+        boolean hotDestination = isHot(toId);
+        Account from;
+        Account to;
+        if (fromId.compareTo(toId) < 0) {
+            from = lockActive(fromId);
+            to = hotDestination ? lockHotForCredit(toId) : lockActive(toId);
+        } else {
+            to = hotDestination ? lockHotForCredit(toId) : lockActive(toId);
+            from = lockActive(fromId);
+        }
+
+        requireFunds(from, request.getAmount());
+        Transaction debit = post(from, Transaction.TransactionType.TRANSFER_OUT, request.getAmount().negate(),
+                description(request.getDescription(), "Transfer to " + to.getAccountNumber()));
+        String creditDescription = description(request.getDescription(), "Transfer from " + from.getAccountNumber());
+        Transaction credit = hotDestination
+                ? creditHot(to, Transaction.TransactionType.TRANSFER_IN, request.getAmount(), creditDescription)
+                : post(to, Transaction.TransactionType.TRANSFER_IN, request.getAmount(), creditDescription);
+        return List.of(mapToDTO(debit), mapToDTO(credit));
+    }
+
+    // Helpers
+
+    private Account lockActive(UUID accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        requireActive(account.getAccountNumber(), account.getAccountStatus());
+        return account;
+    }
+
+    private static void requireActive(String accountNumber, AccountStatus status) {
+        if (status != AccountStatus.ACTIVE) {
+            throw new BusinessException("ERR_ACCOUNT_NOT_ACTIVE", "Account " + accountNumber + " is " + status);
+        }
+    }
+
+    /** Unlocked routing read: whether credits to the account should go to its buckets. */
+    private boolean isHot(UUID accountId) {
+        AccountRepository.PostingTarget target = accountRepository.findPostingTarget(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        return target.getBalanceBuckets() > 0;
+    }
+
+    /**
+     * Share-locks an account routed as hot. Mode changes hold the row exclusively, so the mode
+     * cannot change while the lock is held. If it changed between the routing read and the lock,
+     * the posting fails rather than upgrading to an exclusive lock, which two such postings could
+     * deadlock on.
+     */
+    private Account lockHotForCredit(UUID accountId) {
+        Account account = accountRepository.findByIdForShare(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        requireActive(account.getAccountNumber(), account.getAccountStatus());
+        if (!account.isHotAccount()) {
+            throw new BusinessException("ERR_ACCOUNT_MODE_CHANGED",
+                    "Account " + account.getAccountNumber() + " changed balance mode; retry the posting");
+        }
+        return account;
+    }
+
+    /** Appends the ledger row and credits one bucket of a share-locked hot account. */
+    private Transaction creditHot(Account account, Transaction.TransactionType type, BigDecimal amount,
+                                  String description) {
+        Transaction t = new Transaction();
+        t.setAccount(account);
+        t.setType(type);
+        t.setAmount(amount);
+        t.setDescription(description);
+        t.setCreatedAt(LocalDateTime.now());
+        t = transactionRepository.save(t);
+
+        int bucket = ThreadLocalRandom.current().nextInt(account.getBalanceBuckets());
+        if (bucketRepository.addToBucket(account.getAccountId(), bucket, amount) == 0) {
+            throw new IllegalStateException("Balance bucket " + bucket + " of account "
+                    + account.getAccountNumber() + " is missing");
+        }
+        return t;
+    }
+
+    private static void validateAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new BusinessException("ERR_AMOUNT_INVALID", "Amount must be greater than 0");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new BusinessException("ERR_AMOUNT_INVALID", "Amount must have at most 2 decimal places");
+        }
+    }
+
+    private void requireFunds(Account account, BigDecimal amount) {
+        if (available(account).compareTo(amount) < 0) {
+            throw new BusinessException("ERR_INSUFFICIENT_FUNDS", "Insufficient funds");
+        }
+    }
+
+    /** Balance of a locked account, including credits still pending in its buckets. */
+    private BigDecimal available(Account account) {
+        if (!account.isHotAccount()) {
+            return account.getBalance();
+        }
+        return account.getBalance().add(bucketRepository.sumPending(account.getAccountId()));
+    }
+
+    /** Applies a signed delta to the locked account and appends the ledger row. */
+    private Transaction post(Account account, Transaction.TransactionType type, BigDecimal delta, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal after = available(account).add(delta);
+        account.setBalance(account.getBalance().add(delta));
+        account.setUpdatedAt(now);
+
+        Transaction t = new Transaction();
+        t.setAccount(account);
+        t.setType(type);
+        t.setAmount(delta.abs());
+        t.setBalanceAfter(after);
+        t.setDescription(description);
+        t.setCreatedAt(now);
+        return transactionRepository.save(t);
+    }
+
+    private static String description(String requested, String fallback) {
+        return requested == null || requested.isBlank() ? fallback : requested;
+    }
+
+    private TransactionResponseDTO mapToDTO(Transaction t) {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setTransactionId(t.getTransactionId());
+        dto.setAccountId(t.getAccount().getAccountId());
+        dto.setType(t.getType());
+        dto.setAmount(t.getAmount());
+        dto.setBalanceAfter(t.getBalanceAfter());
+        dto.setDescription(t.getDescription());
+        dto.setCreatedAt(t.getCreatedAt());
+        return dto;
+    }
+}
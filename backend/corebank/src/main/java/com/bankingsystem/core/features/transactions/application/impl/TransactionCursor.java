@@ -0,0 +1,32 @@
+package com.bankingsystem.core.features.transactions.application.impl;
+
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
+import com.bankingsystem.core.modules.common.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Position in an account's history, encoded as URL-safe base64 of {@code createdAt|transactionId}. */
+record TransactionCursor(LocalDateTime createdAt, UUID transactionId) {
+
+    static TransactionCursor of(TransactionResponseDTO last) {
+        return new TransactionCursor(last.getCreatedAt(), last.getTransactionId());
+    }
+
+    String encode() {
+        String raw = createdAt + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("ERR_CURSOR_INVALID", "Invalid pagination cursor");
+        }
+    }
+}
@@ -1,47 +1,69 @@
 package com.bankingsystem.core.features.transactions.application.impl;
 
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionPageDTO;
 import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
-import com.bankingsystem.core.features.accounts.domain.Account;
-import com.bankingsystem.core.features.transactions.domain.Transaction;
 import com.bankingsystem.core.modules.common.exceptions.ResourceNotFoundException;
 import com.bankingsystem.core.features.accounts.domain.repository.AccountRepository;
 import com.bankingsystem.core.features.transactions.domain.repository.TransactionRepository;
 import com.bankingsystem.core.features.transactions.application.TransactionQueryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionQueryServiceImpl implements TransactionQueryService {
 
+    static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
 
     @Override
     public List<TransactionResponseDTO> getTransactionsForAccount(UUID accountId) {
         // Ensure account exists (keeps 404 semantics clean)
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        requireAccount(accountId);
+        return transactionRepository.findHistory(accountId);
+    }
+
+    @Override
+    public TransactionPageDTO getTransactionPage(UUID accountId, String cursor, int limit) {
+        requireAccount(accountId);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<TransactionResponseDTO> items = fetchPage(accountId,
+                cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor), size);
+        String next = items.size() == size ? TransactionCursor.of(items.get(size - 1)).encode() : null;
+        return new TransactionPageDTO(items, next);
+    }
+
+    @Override
+    public void streamTransactions(UUID accountId, Consumer<TransactionResponseDTO> sink) {
+        requireAccount(accountId);
+        TransactionCursor cursor = null;
+        List<TransactionResponseDTO> page;
+        do {
+            page = fetchPage(accountId, cursor, EXPORT_PAGE_SIZE);
+            page.forEach(sink);
+            if (!page.isEmpty()) {
+                cursor = TransactionCursor.of(page.get(page.size() - 1));
+            }
+        } while (page.size() == EXPORT_PAGE_SIZE);
+    }
 
-        return transactionRepository.findByAccountAccountIdOrderByCreatedAtDesc(account.getAccountId())
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    private List<TransactionResponseDTO> fetchPage(UUID accountId, TransactionCursor cursor, int size) {
+        return cursor == null
+                ? transactionRepository.findHistoryPage(accountId, Limit.of(size))
+                : transactionRepository.findHistoryPageAfter(accountId, cursor.createdAt(), cursor.transactionId(), Limit.of(size));
     }
 
-    private TransactionResponseDTO mapToDTO(Transaction t) {
-        TransactionResponseDTO dto = new TransactionResponseDTO();
-        dto.setTransactionId(t.getTransactionId());
-        dto.setAccountId(t.getAccount().getAccountId());
-        dto.setType(t.getType());
-        dto.setAmount(t.getAmount());
-        dto.setBalanceAfter(t.getBalanceAfter());
-        dto.setDescription(t.getDescription());
-        dto.setCreatedAt(t.getCreatedAt());
-        return dto;
+    private void requireAccount(UUID accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account not found");
+        }
     }
 }
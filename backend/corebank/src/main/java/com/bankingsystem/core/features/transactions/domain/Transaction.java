@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_tx_account_created", columnList = "account_id, created_at, transaction_id")
+})
 @Getter
 @Setter
 public class Transaction {
@@ -35,7 +37,8 @@ public class Transaction {
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
-    @Column(name = "balance_after", nullable = false, precision = 19, scale = 2)
+    /** {@code null} for credits posted into a hot account's balance bucket. */
+    @Column(name = "balance_after", precision = 19, scale = 2)
     private BigDecimal balanceAfter;
 
     @Column(name = "description", length = 255)
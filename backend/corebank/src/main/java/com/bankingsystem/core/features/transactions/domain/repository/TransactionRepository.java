@@ -1,11 +1,42 @@
 package com.bankingsystem.core.features.transactions.domain.repository;
 
 import com.bankingsystem.core.features.transactions.domain.Transaction;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     List<Transaction> findByAccountAccountIdOrderByCreatedAtDesc(UUID accountId);
+
+    String PROJECTION = "SELECT new com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO(" +
+            "t.transactionId, t.account.accountId, t.type, t.amount, t.balanceAfter, t.description, t.createdAt) " +
+            "FROM Transaction t WHERE t.account.accountId = :accountId ";
+
+    @Query(PROJECTION + "ORDER BY t.createdAt DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findHistory(@Param("accountId") UUID accountId);
+
+    /** First keyset page, newest first; served from idx_tx_account_created. */
+    @Query(PROJECTION + "ORDER BY t.createdAt DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findHistoryPage(@Param("accountId") UUID accountId, Limit limit);
+
+    /** Keyset page strictly older than the ({@code createdAt}, {@code transactionId}) cursor. */
+    @Query(PROJECTION + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.transactionId < :transactionId)) " +
+            "ORDER BY t.createdAt DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findHistoryPageAfter(@Param("accountId") UUID accountId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("transactionId") UUID transactionId,
+                                                      Limit limit);
+
+    boolean existsByTransactionIdAndAccountCustomerCustomerId(UUID transactionId, UUID customerId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Transaction t JOIN t.account a JOIN a.customer c JOIN c.user u " +
+            "WHERE t.transactionId = :transactionId AND u.username = :username")
+    boolean existsByTransactionIdAndOwnerUsername(@Param("transactionId") UUID transactionId,
+                                                  @Param("username") String username);
 }
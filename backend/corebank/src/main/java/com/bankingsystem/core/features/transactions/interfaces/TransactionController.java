@@ -1,29 +1,40 @@
 package com.bankingsystem.core.features.transactions.interfaces;
 
+import com.bankingsystem.core.features.transactions.application.LedgerPostingService;
+import com.bankingsystem.core.features.transactions.interfaces.dto.CashTransactionRequestDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransactionResponseDTO;
+import com.bankingsystem.core.features.transactions.interfaces.dto.TransferRequestDTO;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/transactions")
+@RequiredArgsConstructor
 public class TransactionController {
 
+    private final LedgerPostingService ledgerPostingService;
+
     @PostMapping("/deposit")
-    @PreAuthorize("hasAnyRole('CUSTOMER','TELLER','ADMIN')")
-    public ResponseEntity<?> deposit(@RequestBody Object request) {
-        return ResponseEntity.status(201).body("Deposit successful");
+    @PreAuthorize("hasAnyRole('TELLER','ADMIN')")
+    public ResponseEntity<TransactionResponseDTO> deposit(@Valid @RequestBody CashTransactionRequestDTO request) {
+        return ResponseEntity.status(201).body(ledgerPostingService.deposit(request));
     }
 
     @PostMapping("/withdraw")
-    @PreAuthorize("hasAnyRole('CUSTOMER','TELLER','ADMIN')")
-    public ResponseEntity<?> withdraw(@RequestBody Object request) {
-        return ResponseEntity.status(201).body("Withdrawal successful");
+    @PreAuthorize("hasAnyRole('TELLER','ADMIN') or (hasRole('CUSTOMER') and @securityService.isAccountOwner(authentication, #request.accountId))")
+    public ResponseEntity<TransactionResponseDTO> withdraw(@Valid @RequestBody CashTransactionRequestDTO request) {
+        return ResponseEntity.status(201).body(ledgerPostingService.withdraw(request));
     }
 
     @PostMapping("/transfer")
-    @PreAuthorize("hasAnyRole('CUSTOMER','TELLER','ADMIN')")
-    public ResponseEntity<?> transfer(@RequestBody Object request) {
-        return ResponseEntity.status(201).body("Transfer successful");
+    @PreAuthorize("hasAnyRole('TELLER','ADMIN') or (hasRole('CUSTOMER') and @securityService.isAccountOwner(authentication, #request.fromAccountId))")
+    public ResponseEntity<List<TransactionResponseDTO>> transfer(@Valid @RequestBody TransferRequestDTO request) {
+        return ResponseEntity.status(201).body(ledgerPostingService.transfer(request));
     }
 
     @GetMapping
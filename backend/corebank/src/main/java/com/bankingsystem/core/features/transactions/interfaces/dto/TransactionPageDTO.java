@@ -0,0 +1,14 @@
+package com.bankingsystem.core.features.transactions.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionPageDTO {
+    private List<TransactionResponseDTO> items;
+    /** Opaque cursor for the next (older) page, {@code null} when this is the last page. */
+    private String nextCursor;
+}
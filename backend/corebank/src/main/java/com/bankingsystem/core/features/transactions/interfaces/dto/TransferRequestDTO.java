@@ -0,0 +1,26 @@
+package com.bankingsystem.core.features.transactions.interfaces.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class TransferRequestDTO {
+    @NotNull(message = "Source account ID is required")
+    private UUID fromAccountId;
+    @NotNull(message = "Destination account ID is required")
+    private UUID toAccountId;
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 2 decimal places")
+    private BigDecimal amount;
+    @Size(max = 255)
+    private String description;
+}
@@ -0,0 +1,80 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.bankingsystem.core.features.wallet.domain.repository.CardAddSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes card-add sessions, consumed or abandoned, once they have been expired for longer than
+ * the grace period. The grace period leaves room for a late PayHere preapproval notification;
+ * after it, such a notification finds no session and is ignored. Chunks are deleted in their own
+ * short transactions, at most {@code max-batches} per run.
+ */
+@Slf4j
+@Component
+public class CardAddSessionSweeper {
+
+    private final CardAddSessionRepository repo;
+    private final TransactionTemplate tx;
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purged;
+    private final Timer runs;
+
+    public CardAddSessionSweeper(CardAddSessionRepository repo,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${wallet.card-session.sweep.grace-minutes:60}") long graceMinutes,
+                                 @Value("${wallet.card-session.sweep.batch-size:1000}") int batchSize,
+                                 @Value("${wallet.card-session.sweep.max-batches:100}") int maxBatches) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purged = Counter.builder("wallet.card-sessions.purged")
+                .description("Expired card-add sessions deleted by the sweeper")
+                .register(meterRegistry);
+        this.runs = Timer.builder("wallet.card-sessions.sweep")
+                .description("Duration of card-add session sweeps")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.card-session.sweep.delay-ms:300000}")
+    public void sweep() {
+        purgeExpiredBefore(OffsetDateTime.now().minus(grace));
+    }
+
+    /** Returns the number of rows deleted. */
+    public int purgeExpiredBefore(OffsetDateTime cutoff) {
+        long start = System.nanoTime();
+        int total = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            Integer deleted = tx.execute(status -> repo.purgeExpiredBefore(cutoff, batchSize));
+            batches++;
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+            purged.increment(deleted);
+            if (deleted < batchSize) break;
+        }
+        long elapsed = System.nanoTime() - start;
+        runs.record(Duration.ofNanos(elapsed));
+        if (total > 0) {
+            log.info("Purged {} card-add sessions expired before {} in {} batches ({} ms)",
+                    total, cutoff, batches, elapsed / 1_000_000);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Node-local negative cache of card-add session ids that cannot be preapproved: unknown,
+ * consumed or expired. None of these states can become usable again, so bots and stale links
+ * replaying such ids are answered without a database lookup.
+ */
+@Component
+public class DeadCardSessionCache {
+
+    private final Cache<String, Boolean> dead;
+
+    public DeadCardSessionCache(MeterRegistry meterRegistry,
+                                @Value("${wallet.card-session.negative-cache.ttl-minutes:10}") long ttlMinutes,
+                                @Value("${wallet.card-session.negative-cache.max-size:100000}") long maxSize) {
+        this.dead = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, dead, "wallet.card-sessions.dead");
+    }
+
+    public boolean isDead(String sessionId) {
+        return dead.getIfPresent(sessionId) != null;
+    }
+
+    public void markDead(String sessionId) {
+        dead.put(sessionId, Boolean.TRUE);
+    }
+}
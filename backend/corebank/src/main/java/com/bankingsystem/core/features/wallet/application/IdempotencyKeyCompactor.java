@@ -0,0 +1,83 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.bankingsystem.core.features.wallet.domain.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes wallet idempotency keys older than the retention TTL so {@code wallet_idempotency}
+ * stays at working-set size. Each chunk is deleted in its own short transaction to keep lock
+ * time and undo volume bounded; a run stops after {@code max-batches} chunks and the remainder
+ * is picked up by the next run.
+ * <p>
+ * Clients must not retry a keyed call later than the TTL; after that the key is forgotten and
+ * the call executes again.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyCompactor {
+
+    private final IdempotencyKeyRepository repo;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purged;
+    private final Timer runs;
+
+    public IdempotencyKeyCompactor(IdempotencyKeyRepository repo,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${wallet.idempotency.retention.ttl-hours:24}") long ttlHours,
+                                   @Value("${wallet.idempotency.retention.batch-size:1000}") int batchSize,
+                                   @Value("${wallet.idempotency.retention.max-batches:100}") int maxBatches) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purged = Counter.builder("wallet.idempotency.purged")
+                .description("Idempotency keys deleted by retention")
+                .register(meterRegistry);
+        this.runs = Timer.builder("wallet.idempotency.compaction")
+                .description("Duration of idempotency key retention runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.idempotency.retention.delay-ms:300000}")
+    public void compact() {
+        purgeCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    /** Returns the number of rows deleted. */
+    public int purgeCreatedBefore(Instant cutoff) {
+        long start = System.nanoTime();
+        int total = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            Integer deleted = tx.execute(status -> repo.purgeCreatedBefore(cutoff, batchSize));
+            batches++;
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+            purged.increment(deleted);
+            if (deleted < batchSize) break;
+        }
+        long elapsed = System.nanoTime() - start;
+        runs.record(Duration.ofNanos(elapsed));
+        if (total > 0) {
+            log.info("Purged {} idempotency keys created before {} in {} batches ({} ms)",
+                    total, cutoff, batches, elapsed / 1_000_000);
+        }
+        return total;
+    }
+}
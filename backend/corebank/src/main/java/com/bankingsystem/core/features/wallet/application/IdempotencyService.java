@@ -1,59 +1,245 @@
 package com.bankingsystem.core.features.wallet.application;
 
+import com.bankingsystem.core.features.wallet.application.impl.JsonResponseCodec;
 import com.bankingsystem.core.features.wallet.domain.entity.IdempotencyKey;
 import com.bankingsystem.core.features.wallet.domain.repository.IdempotencyKeyRepository;
+import com.bankingsystem.core.modules.common.exceptions.BusinessException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
+/**
+ * Replays the stored response of a keyed wallet call instead of executing it twice.
+ * <p>
+ * Lookups go through three tiers: a node-local cache of recently completed keys, a map of
+ * requests still executing on this node (duplicates wait on the first one's future), and finally
+ * the {@code wallet_idempotency} table, where an {@code INSERT IGNORE} claim decides which node
+ * executes a key. The response is written in the caller's transaction and published to waiters
+ * only after commit; on rollback the claim is released so the client may retry.
+ * <p>
+ * A claim is a lease: if it has no response after {@code wallet.idempotency.claim-timeout-seconds},
+ * because the node holding it died, the next request with the key takes it over and executes.
+ * The response is only stored while the writer's claim still stands, so an owner that was merely
+ * slow and has been taken over rolls back instead of committing a second execution.
+ * <p>
+ * Responses are stored with the configured {@link IdempotentResponseCodec}; rows written before
+ * codecs existed only have {@code response_json} and are replayed as JSON.
+ */
 @Service
-@RequiredArgsConstructor
 public class IdempotencyService {
 
+    /** An encoded response together with the codec that wrote it. */
+    private record Stored(IdempotentResponseCodec codec, byte[] payload) {
+        <T> T decode(Class<T> type) {
+            return codec.decode(payload, type);
+        }
+    }
+
+    private record Completed(String requestHash, Stored response) {
+    }
+
+    private static final class InFlight {
+        final String requestHash;
+        final CompletableFuture<Stored> response = new CompletableFuture<>();
+        volatile Instant claimedAt;
+        volatile Stored stored;
+
+        InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
     private final IdempotencyKeyRepository repo;
     private final ObjectMapper mapper;
+    private final IdempotentResponseCodecs codecs;
+    private final TransactionTemplate claimTx;
+    private final Cache<String, Completed> recent;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final boolean recentEnabled;
+    private final long waitMs;
+    private final Duration claimTimeout;
+
+    public IdempotencyService(IdempotencyKeyRepository repo,
+                              ObjectMapper mapper,
+                              IdempotentResponseCodecs codecs,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${wallet.idempotency.cache.max-size:10000}") long maxSize,
+                              @Value("${wallet.idempotency.cache.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${wallet.idempotency.wait-ms:30000}") long waitMs,
+                              @Value("${wallet.idempotency.claim-timeout-seconds:120}") long claimTimeoutSeconds) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.codecs = codecs;
+        this.claimTx = new TransactionTemplate(transactionManager);
+        this.claimTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "wallet.idempotency");
+        this.recentEnabled = maxSize > 0;
+        this.waitMs = waitMs;
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+    }
 
     @Transactional
     public <T> T withIdempotency(String key, Object request, Class<T> type, Supplier<T> supplier) {
         if (key == null || key.isBlank()) return supplier.get();
-        String reqJson = toJson(request);
-        String hash = sha256(reqJson);
-        Optional<IdempotencyKey> existing = repo.findById(key);
-        if (existing.isPresent()) {
-            IdempotencyKey i = existing.get();
-            if (hash.equals(i.getRequestHash()) && i.getResponseJson() != null) {
-                return fromJson(i.getResponseJson(), type);
+        String hash = sha256(toJson(request));
+
+        Completed done = recentEnabled ? recent.getIfPresent(key) : null;
+        if (done != null) {
+            requireSameRequest(done.requestHash(), hash);
+            return done.response().decode(type);
+        }
+
+        InFlight mine = new InFlight(hash);
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            requireSameRequest(running.requestHash, hash);
+            return await(running).decode(type);
+        }
+
+        try {
+            Optional<IdempotencyKey> existing = repo.findById(key);
+            if (existing.isPresent() && existing.get().hasResponse()) {
+                Stored response = replayStored(existing.get(), key, hash);
+                finish(key, mine, response, null);
+                return response.decode(type);
             }
+            // Millisecond precision so the stored value compares equal to ours.
+            Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            Integer rows = claimTx.execute(status -> {
+                int claimed = repo.claim(key, hash, claimedAt);
+                return claimed > 0 ? claimed : repo.takeOverStale(key, hash, claimedAt, claimedAt.minus(claimTimeout));
+            });
+            if (rows == null || rows == 0) {
+                Stored response = replayStored(repo.findById(key).orElse(null), key, hash);
+                finish(key, mine, response, null);
+                return response.decode(type);
+            }
+            mine.claimedAt = claimedAt;
+        } catch (RuntimeException e) {
+            finish(key, mine, null, e);
+            throw e;
+        }
+
+        boolean synced = TransactionSynchronizationManager.isSynchronizationActive();
+        if (synced) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED && mine.stored != null) {
+                        remember(key, hash, mine.stored);
+                        finish(key, mine, mine.stored, null);
+                    } else {
+                        release(key, mine);
+                    }
+                }
+            });
+        }
+        try {
+            T result = supplier.get();
+            IdempotentResponseCodec codec = codecs.active();
+            Stored stored = new Stored(codec, codec.encode(result));
+            if (repo.storeResponse(key, mine.claimedAt, codec.id(), stored.payload()) == 0) {
+                throw new BusinessException("ERR_IDEMPOTENCY_IN_PROGRESS",
+                        "The claim on this idempotency key expired and was taken over by a retry");
+            }
+            mine.stored = stored;
+            if (!synced) {
+                remember(key, hash, stored);
+                finish(key, mine, stored, null);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (!synced) release(key, mine);
+            throw e;
         }
-        T result = supplier.get();
-        String resJson = toJson(result);
-        IdempotencyKey rec = existing.orElseGet(() -> IdempotencyKey.builder().idemKey(key).build());
-        rec.setRequestHash(hash);
-        rec.setResponseJson(resJson);
-        if (rec.getCreatedAt() == null) rec.setCreatedAt(Instant.now());
-        repo.save(rec);
-        return result;
     }
 
-    private String toJson(Object o) {
+    private void remember(String key, String hash, Stored response) {
+        if (recentEnabled) recent.put(key, new Completed(hash, response));
+    }
+
+    /** The claim row was committed on its own, so a failed execution has to remove it explicitly. */
+    private void release(String key, InFlight mine) {
         try {
-            return mapper.writeValueAsString(o);
-        } catch (Exception e) {
+            claimTx.executeWithoutResult(s -> repo.releaseClaim(key, mine.claimedAt));
+        } finally {
+            finish(key, mine, null, new BusinessException("ERR_IDEMPOTENCY_FAILED",
+                    "Original request with this idempotency key failed"));
+        }
+    }
+
+    private void finish(String key, InFlight mine, Stored response, RuntimeException failure) {
+        inFlight.remove(key, mine);
+        if (failure == null) mine.response.complete(response);
+        else mine.response.completeExceptionally(failure);
+    }
+
+    /** Another node or an earlier request already owns the key in the database. */
+    private Stored replayStored(IdempotencyKey i, String key, String hash) {
+        if (i == null || !i.hasResponse()) {
+            throw new BusinessException("ERR_IDEMPOTENCY_IN_PROGRESS", "A request with this idempotency key is still being processed");
+        }
+        requireSameRequest(i.getRequestHash(), hash);
+        Stored stored = i.getResponseBlob() != null
+                ? new Stored(codecs.forId(i.getResponseCodec()), i.getResponseBlob())
+                : new Stored(codecs.forId(JsonResponseCodec.ID), i.getResponseJson().getBytes(StandardCharsets.UTF_8));
+        remember(key, i.getRequestHash(), stored);
+        return stored;
+    }
+
+    private static void requireSameRequest(String storedHash, String hash) {
+        if (!storedHash.equals(hash)) {
+            throw new BusinessException("ERR_IDEMPOTENCY_MISMATCH", "Idempotency key was already used with a different request");
+        }
+    }
+
+    private Stored await(InFlight running) {
+        try {
+            return running.response.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("ERR_IDEMPOTENCY_IN_PROGRESS", "A request with this idempotency key is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
     }
 
-    private <T> T fromJson(String json, Class<T> type) {
+    private String toJson(Object o) {
         try {
-            return mapper.readValue(json, type);
+            return mapper.writeValueAsString(o);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,15 @@
+package com.bankingsystem.core.features.wallet.application;
+
+/**
+ * Encoding used to persist and replay responses of idempotent wallet calls. The {@link #id()}
+ * is stored next to every response so rows written by an earlier codec stay readable after the
+ * configured one changes.
+ */
+public interface IdempotentResponseCodec {
+
+    String id();
+
+    byte[] encode(Object response);
+
+    <T> T decode(byte[] payload, Class<T> type);
+}
@@ -0,0 +1,46 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.bankingsystem.core.features.wallet.application.impl.JsonResponseCodec;
+import com.bankingsystem.core.features.wallet.application.impl.SmileResponseCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Known response codecs by id. New responses are written with {@code wallet.idempotency.codec};
+ * stored ones are decoded with whichever codec wrote them.
+ */
+@Component
+public class IdempotentResponseCodecs {
+
+    private final Map<String, IdempotentResponseCodec> byId;
+    private final IdempotentResponseCodec active;
+
+    public IdempotentResponseCodecs(ObjectMapper mapper,
+                                    @Value("${wallet.idempotency.codec:smile}") String activeId) {
+        this.byId = List.of(
+                        new JsonResponseCodec(mapper),
+                        new SmileResponseCodec(mapper, false),
+                        new SmileResponseCodec(mapper, true))
+                .stream()
+                .collect(Collectors.toUnmodifiableMap(IdempotentResponseCodec::id, Function.identity()));
+        this.active = forId(activeId);
+    }
+
+    public IdempotentResponseCodec active() {
+        return active;
+    }
+
+    public IdempotentResponseCodec forId(String id) {
+        IdempotentResponseCodec codec = byId.get(id);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown idempotent response codec: " + id);
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of rendered PayHere redirect pages, keyed by PayHere order id (payment
+ * intent or card session id). Clients and promotions tend to reload the checkout page several
+ * times in a row; repeats skip the lookup, signing and rendering.
+ * <p>
+ * Anything that changes an intent's status or consumes a card session calls
+ * {@link #invalidate(String)}. The entry is evicted again after the transaction completes, and a
+ * page being rendered for that key at that moment is waited for and dropped, so no page built
+ * from pre-commit state survives the commit.
+ * <p>
+ * A page rendered for something with its own deadline (a card session's {@code expiresAt}) is
+ * never kept past that deadline, even when it falls inside the cache TTL.
+ */
+@Component
+public class PayHereCheckoutPages {
+
+    /** A rendered page and the instant after which it must not be served; {@code null} means no deadline. */
+    public record Page(byte[] html, OffsetDateTime expiresAt) {}
+
+    private final Cache<String, Page> pages;
+
+    public PayHereCheckoutPages(MeterRegistry meterRegistry,
+                                @Value("${wallet.payhere.checkout-cache.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${wallet.payhere.checkout-cache.max-size:10000}") long maxSize) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PageExpiry(Duration.ofSeconds(ttlSeconds).toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "wallet.payhere.checkout-pages");
+    }
+
+    public byte[] get(String orderId, Supplier<byte[]> renderer) {
+        Page page = getPage(orderId, () -> {
+            byte[] html = renderer.get();
+            return html == null ? null : new Page(html, null);
+        });
+        return page == null ? null : page.html();
+    }
+
+    /** Like {@link #get}, for pages that stop being valid at {@link Page#expiresAt()}. */
+    public Page getPage(String orderId, Supplier<Page> renderer) {
+        return pages.get(orderId, k -> renderer.get());
+    }
+
+    public void invalidate(String orderId) {
+        pages.invalidate(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pages.invalidate(orderId);
+                }
+            });
+        }
+    }
+
+    private record PageExpiry(long ttlNanos) implements Expiry<String, Page> {
+
+        @Override
+        public long expireAfterCreate(String key, Page page, long currentTime) {
+            if (page.expiresAt() == null) {
+                return ttlNanos;
+            }
+            long left = Duration.between(OffsetDateTime.now(), page.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, left));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Page page, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, page, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Page page, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
+import com.bankingsystem.core.features.wallet.domain.entity.CardAddSession;
+import com.bankingsystem.core.features.wallet.domain.entity.WalletCard;
+import com.bankingsystem.core.features.wallet.domain.repository.CardAddSessionRepository;
+import com.bankingsystem.core.features.wallet.domain.repository.PaymentIntentRepository;
+import com.bankingsystem.core.features.wallet.domain.repository.WalletCardRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies one recorded PayHere notification. Runs inside the inbox worker's transaction and
+ * locks the intent or card session row, so notifications for the same order from several nodes
+ * are serialized. Returns the outcome stored on the inbox row.
+ */
+@Component
+@RequiredArgsConstructor
+class PayHereNotifyApplier {
+
+    static final String APPLIED = "APPLIED";
+    static final String STALE = "STALE";
+    static final String IGNORED = "IGNORED";
+
+    private final PaymentIntentRepository intents;
+    private final CardAddSessionRepository sessions;
+    private final WalletCardRepository cards;
+    private final PayHereCheckoutPages pages;
+
+    String applyPayment(String orderId, Map<String, String> form) {
+        return intents.findByIdForUpdate(orderId).map(p -> {
+            PaymentStatus next = switch (form.getOrDefault("status_code", "")) {
+                case "2" -> PaymentStatus.SUCCESS;
+                case "0" -> PaymentStatus.PROCESSING;
+                case "-1" -> PaymentStatus.CANCELED;
+                default -> PaymentStatus.FAILED;
+            };
+            if (!p.getStatus().canAdvanceTo(next)) {
+                return STALE;
+            }
+            p.setStatus(next);
+            p.setDescription(form.getOrDefault("status_message", ""));
+            pages.invalidate(orderId);
+            return APPLIED;
+        }).orElse(IGNORED);
+    }
+
+    String applyPreapprove(String orderId, Map<String, String> form) {
+        CardAddSession s = sessions.findByIdForUpdate(orderId).orElse(null);
+        if (s == null) return IGNORED;
+        if (s.isConsumed()) return STALE;
+        pages.invalidate(orderId);
+
+        if (!"2".equals(form.getOrDefault("status_code", ""))) { // PayHere: 2 == success
+            // Mark session consumed but don't create a card
+            s.setConsumed(true);
+            return APPLIED;
+        }
+
+        String token  = firstNonEmpty(form.get("customer_token"), form.get("recurring_token"), form.get("token"));
+        String method = form.getOrDefault("method", "CARD");
+        String masked = firstNonEmpty(form.get("masked_card"), form.get("card_no"));
+        String expiry = form.getOrDefault("card_expiry", ""); // MM/YY or MM/YYYY
+
+        // Derive brand + last4
+        String last4 = "";
+        // masked may be like XXXX-XXXX-1234 or **** **** **** 1234
+        String digits = masked.replaceAll("[^0-9]", "");
+        if (digits.length() >= 4) last4 = digits.substring(digits.length() - 4);
+
+        Integer mm = null, yy = null;
+        if (expiry.matches("\\d{2}/\\d{2,4}")) {
+            String[] parts = expiry.split("/");
+            try {
+                mm = Integer.parseInt(parts[0]);
+                int y = Integer.parseInt(parts[1]);
+                yy = (y < 100) ? 2000 + y : y;
+            } catch (Exception ignored) {}
+        }
+
+        // First card becomes default
+        boolean makeDefault = !cards.existsByUserIdAndIsDefaultTrue(s.getUserId());
+
+        cards.save(WalletCard.builder()
+                .id(UUID.randomUUID())
+                .userId(s.getUserId())
+                .brand(method)
+                .last4(last4)
+                .expiryMonth(mm)
+                .expiryYear(yy)
+                .customerToken(token)
+                .isDefault(makeDefault)
+                .build());
+        s.setConsumed(true);
+        return APPLIED;
+    }
+
+    private static String firstNonEmpty(String... v) {
+        for (String x : v) if (x != null && !x.isBlank()) return x;
+        return "";
+    }
+}
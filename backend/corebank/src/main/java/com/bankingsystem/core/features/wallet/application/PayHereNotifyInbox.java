@@ -0,0 +1,212 @@
+package com.bankingsystem.core.features.wallet.application;
+
+import com.bankingsystem.core.features.wallet.domain.PayHereNotifyKind;
+import com.bankingsystem.core.features.wallet.domain.entity.PayHereNotification;
+import com.bankingsystem.core.features.wallet.domain.repository.PayHereNotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbox for PayHere notify callbacks. The HTTP thread only records the verified notification
+ * (PSP retries collapse on the dedupe key) and hands the order to a worker; transitions are
+ * applied off the request path.
+ * <p>
+ * Each order is pinned to one single-threaded worker, so its notifications are applied one at
+ * a time in arrival order. A failing row blocks the rows after it for the same order until it
+ * succeeds or runs out of attempts. Rows left behind by a crash or recorded on another node
+ * are picked up by the periodic sweep.
+ */
+@Slf4j
+@Service
+public class PayHereNotifyInbox {
+
+    private static final TypeReference<Map<String, String>> FORM = new TypeReference<>() {};
+    private static final String DEAD = "DEAD";
+
+    private final PayHereNotificationRepository repo;
+    private final PayHereNotifyApplier applier;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final ExecutorService[] workers;
+    private final ConcurrentHashMap<String, Boolean> queued = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter duplicates;
+    private final Counter failures;
+    private final Timer lag;
+
+    public PayHereNotifyInbox(PayHereNotificationRepository repo,
+                              PayHereNotifyApplier applier,
+                              ObjectMapper mapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${wallet.payhere.notify.workers:4}") int workerCount,
+                              @Value("${wallet.payhere.notify.batch-size:500}") int batchSize,
+                              @Value("${wallet.payhere.notify.max-attempts:10}") int maxAttempts) {
+        this.repo = repo;
+        this.applier = applier;
+        this.mapper = mapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.workers = new ExecutorService[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            String name = "payhere-notify-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.meterRegistry = meterRegistry;
+        this.duplicates = Counter.builder("wallet.payhere.notify.duplicates")
+                .description("PayHere notifications dropped as PSP retries")
+                .register(meterRegistry);
+        this.failures = Counter.builder("wallet.payhere.notify.failures")
+                .description("Failed attempts to apply a PayHere notification")
+                .register(meterRegistry);
+        this.lag = Timer.builder("wallet.payhere.notify.lag")
+                .description("Time from receiving a PayHere notification to applying it")
+                .register(meterRegistry);
+    }
+
+    /** Records a notification whose signature has already been verified. */
+    public void record(PayHereNotifyKind kind, Map<String, String> form) {
+        String orderId = form.getOrDefault("order_id", "");
+        String statusCode = form.getOrDefault("status_code", "");
+        String dedupeKey = kind + ":" + orderId + ":" + statusCode + ":" + form.getOrDefault("payment_id", "");
+        Integer rows = tx.execute(status -> repo.enqueue(
+                kind.name(), dedupeKey, orderId, statusCode, toJson(form), Instant.now()));
+        if (rows == null || rows == 0) {
+            duplicates.increment();
+            return;
+        }
+        meterRegistry.counter("wallet.payhere.notify.received", "kind", kind.name()).increment();
+        dispatch(orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.payhere.notify.sweep-ms:5000}")
+    public void sweep() {
+        for (String orderId : repo.findPendingOrderIds(PageRequest.of(0, batchSize))) {
+            dispatch(orderId);
+        }
+    }
+
+    private void dispatch(String orderId) {
+        if (queued.putIfAbsent(orderId, Boolean.TRUE) != null) return;
+        try {
+            workers[Math.floorMod(orderId.hashCode(), workers.length)].execute(() -> drain(orderId));
+        } catch (RejectedExecutionException e) {
+            queued.remove(orderId);
+        }
+    }
+
+    /**
+     * Applies the pending rows of one order. The order is unqueued before reading so that a
+     * notification recorded meanwhile queues it again behind this run on the same worker.
+     */
+    private void drain(String orderId) {
+        queued.remove(orderId);
+        try {
+            for (PayHereNotification n : repo.findByOrderIdAndProcessedAtIsNullOrderByIdAsc(orderId)) {
+                if (!process(n)) return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reading PayHere notifications of order {} failed: {}", orderId, e.getMessage());
+        }
+    }
+
+    /** Returns {@code false} if the row must be retried before later rows of the order. */
+    private boolean process(PayHereNotification n) {
+        try {
+            String outcome = tx.execute(status -> {
+                Map<String, String> form = fromJson(n.getPayload());
+                String result = switch (n.getKind()) {
+                    case PAYMENT -> applier.applyPayment(n.getOrderId(), form);
+                    case PREAPPROVE -> applier.applyPreapprove(n.getOrderId(), form);
+                };
+                if (repo.markProcessed(n.getId(), result, Instant.now()) == 0) {
+                    status.setRollbackOnly(); // another node got there first
+                    return null;
+                }
+                return result;
+            });
+            if (outcome != null) {
+                meterRegistry.counter("wallet.payhere.notify.processed",
+                        "kind", n.getKind().name(), "outcome", outcome).increment();
+                lag.record(Duration.between(n.getReceivedAt(), Instant.now()));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            failures.increment();
+            return recordFailure(n, e);
+        }
+    }
+
+    private boolean recordFailure(PayHereNotification n, RuntimeException e) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > 512) error = error.substring(0, 512);
+        String message = error;
+        boolean dead = n.getAttempts() + 1 >= maxAttempts;
+        try {
+            tx.executeWithoutResult(status -> {
+                repo.recordFailure(n.getId(), message);
+                if (dead) repo.markProcessed(n.getId(), DEAD, Instant.now());
+            });
+        } catch (RuntimeException ignored) {
+            return false;
+        }
+        if (dead) {
+            log.error("Giving up on PayHere notification {} for order {} after {} attempts: {}",
+                    n.getId(), n.getOrderId(), maxAttempts, message);
+            return true;
+        }
+        log.warn("Applying PayHere notification {} for order {} failed: {}", n.getId(), n.getOrderId(), message);
+        return false;
+    }
+
+    private String toJson(Map<String, String> form) {
+        try {
+            return mapper.writeValueAsString(form);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, String> fromJson(String payload) {
+        try {
+            return mapper.readValue(payload, FORM);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ExecutorService w : workers) w.shutdown();
+        for (ExecutorService w : workers) w.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
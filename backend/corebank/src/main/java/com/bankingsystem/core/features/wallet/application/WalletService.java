@@ -1,5 +1,6 @@
 package com.bankingsystem.core.features.wallet.application;
 
+import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
 import com.bankingsystem.core.features.wallet.interfaces.dto.*;
 import org.springframework.security.core.Authentication;
 import java.util.List;
@@ -13,4 +14,10 @@ public interface WalletService {
     PaymentIntentDto createReloadPayment(Authentication auth, ReloadRequest req, String idemKey);
     PaymentIntentDto createBillPayment(Authentication auth, BillPayRequest req, String idemKey);
     PaymentIntentDto getPaymentIntent(Authentication auth, String intentId);
+
+    /**
+     * Applies a status pushed by the wallet webhook. The intent row is locked and the status only
+     * moves forward; returns {@code false} for an unknown intent or a stale status.
+     */
+    boolean applyWebhookStatus(String intentId, PaymentStatus status);
 }
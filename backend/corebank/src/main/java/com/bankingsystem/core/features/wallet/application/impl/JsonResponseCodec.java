@@ -0,0 +1,42 @@
+package com.bankingsystem.core.features.wallet.application.impl;
+
+import com.bankingsystem.core.features.wallet.application.IdempotentResponseCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/** Plain UTF-8 JSON, the format responses were stored in originally. */
+public class JsonResponseCodec implements IdempotentResponseCodec {
+
+    public static final String ID = "json";
+
+    private final ObjectMapper mapper;
+
+    public JsonResponseCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(Object response) {
+        try {
+            return mapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) {
+        try {
+            return mapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
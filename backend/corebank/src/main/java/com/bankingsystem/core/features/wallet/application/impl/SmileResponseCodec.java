@@ -0,0 +1,79 @@
+package com.bankingsystem.core.features.wallet.application.impl;
+
+import com.bankingsystem.core.features.wallet.application.IdempotentResponseCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Jackson Smile (binary JSON) with the same modules as the application mapper, optionally
+ * deflated. Deflate only pays off for responses of a few hundred bytes or more.
+ */
+public class SmileResponseCodec implements IdempotentResponseCodec {
+
+    public static final String ID = "smile";
+    public static final String DEFLATE_ID = "smile+deflate";
+
+    private final ObjectMapper smile;
+    private final boolean deflate;
+
+    public SmileResponseCodec(ObjectMapper mapper, boolean deflate) {
+        SmileFactory factory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        this.smile = mapper.copyWith(factory);
+        this.deflate = deflate;
+    }
+
+    @Override
+    public String id() {
+        return deflate ? DEFLATE_ID : ID;
+    }
+
+    @Override
+    public byte[] encode(Object response) {
+        try {
+            if (!deflate) {
+                return smile.writeValueAsBytes(response);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+            try (DeflaterOutputStream zip = new DeflaterOutputStream(out, deflater)) {
+                smile.writeValue(zip, response);
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) {
+        try {
+            if (!deflate) {
+                return smile.readValue(payload, type);
+            }
+            Inflater inflater = new Inflater(true);
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(payload), inflater)) {
+                return smile.readValue(in, type);
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
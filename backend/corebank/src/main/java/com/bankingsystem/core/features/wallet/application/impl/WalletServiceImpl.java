@@ -1,8 +1,10 @@
 package com.bankingsystem.core.features.wallet.application.impl;
 
 import com.bankingsystem.core.features.wallet.application.IdempotencyService;
+import com.bankingsystem.core.features.wallet.application.PayHereCheckoutPages;
 import com.bankingsystem.core.features.wallet.application.WalletService;
 import com.bankingsystem.core.features.wallet.config.PayHereProperties;
+import com.bankingsystem.core.features.wallet.domain.Money;
 import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
 import com.bankingsystem.core.features.wallet.domain.PaymentType;
 import com.bankingsystem.core.features.wallet.domain.entity.CardAddSession;
@@ -11,9 +13,15 @@ import com.bankingsystem.core.features.wallet.domain.entity.WalletCard;
 import com.bankingsystem.core.features.wallet.domain.repository.CardAddSessionRepository;
 import com.bankingsystem.core.features.wallet.domain.repository.PaymentIntentRepository;
 import com.bankingsystem.core.features.wallet.domain.repository.WalletCardRepository;
+import com.bankingsystem.core.features.wallet.integration.psp.PspClient;
 import com.bankingsystem.core.features.wallet.interfaces.dto.*;
+import com.bankingsystem.core.modules.common.exceptions.BusinessException;
+import com.bankingsystem.core.modules.common.exceptions.ResourceNotFoundException;
 import com.bankingsystem.core.modules.common.security.CurrentUserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +40,11 @@ public class WalletServiceImpl implements WalletService {
     private final IdempotencyService idem;
     private final PayHereProperties cfg;
     private final CardAddSessionRepository sessions;
+    private final PspClient psp;
+    private final PayHereCheckoutPages pages;
+
+    @Value("${wallet.card-session.ttl-minutes:30}")
+    private long cardSessionTtlMinutes;
 
     @Override
     public List<CardDto> listCards(Authentication auth) {
@@ -47,21 +60,36 @@ public class WalletServiceImpl implements WalletService {
         CardAddSession s = new CardAddSession();
         s.setId(sessionId);
         s.setUserId(userId);
-        s.setCreatedAt(OffsetDateTime.now());
+        OffsetDateTime now = OffsetDateTime.now();
+        s.setCreatedAt(now);
+        s.setExpiresAt(now.plusMinutes(cardSessionTtlMinutes));
         s.setConsumed(false);
         sessions.save(s);
+        psp.cardSessionCreated(sessionId);
         String url = cfg.getServerBaseUrl() + "/api/v1/wallet/payhere/preapprove/" + sessionId;
         return CreateCardSessionResponse.builder().sessionId(sessionId).url(url).build();
     }
 
+    /**
+     * Two updates: clear the current default, then set the new one. The user's card rows are
+     * locked in id order first, so racing switches queue behind each other and the later one
+     * wins. The unique key on {@code default_user_id} still rejects a second default, and a lock
+     * failure is reported the same way as that conflict.
+     */
     @Override
     @Transactional
     public void makeDefault(Authentication auth, String cardId) {
         UUID userId = currentUser.requireUserId(auth);
         UUID id = UUID.fromString(cardId);
-        List<WalletCard> my = cards.findByUserIdOrderByCreatedAtDesc(userId);
-        for (WalletCard c : my) c.setDefault(c.getId().equals(id));
-        cards.saveAll(my);
+        try {
+            cards.lockAllForUser(userId);
+            cards.clearDefaultExcept(userId, id);
+            if (cards.markDefault(userId, id) == 0) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            throw new BusinessException("ERR_CARD_DEFAULT_CONFLICT", "Default card was changed concurrently, please retry");
+        }
     }
 
     @Override
@@ -69,7 +97,16 @@ public class WalletServiceImpl implements WalletService {
     public void deleteCard(Authentication auth, String cardId) {
         UUID userId = currentUser.requireUserId(auth);
         UUID id = UUID.fromString(cardId);
-        cards.findByIdAndUserId(id, userId).ifPresent(cards::delete);
+        cards.lockAllForUser(userId);
+        cards.findByIdAndUserId(id, userId).ifPresent(card -> {
+            cards.delete(card);
+            cards.flush();
+            // Keep exactly one default while the user has cards
+            if (card.isDefault()) {
+                cards.findFirstByUserIdOrderByCreatedAtDesc(userId)
+                        .ifPresent(next -> cards.markDefault(userId, next.getId()));
+            }
+        });
     }
 
     @Override
@@ -103,21 +140,33 @@ public class WalletServiceImpl implements WalletService {
         return PaymentIntentDto.from(p);
     }
 
+    @Override
+    @Transactional
+    public boolean applyWebhookStatus(String intentId, PaymentStatus status) {
+        PaymentIntent p = intents.findByIdForUpdate(intentId).orElse(null);
+        if (p == null || !p.getStatus().canAdvanceTo(status)) return false;
+        p.setStatus(status);
+        pages.invalidate(intentId);
+        return true;
+    }
+
     private PaymentIntentDto createIntent(Authentication auth, PaymentType type, AmountDto amt, String description) {
         UUID userId = currentUser.requireUserId(auth);
         String id = com.bankingsystem.core.features.wallet.domain.entity.PaymentIntent.newId();
         String checkoutUrl = cfg.getServerBaseUrl() + "/api/v1/wallet/payhere/checkout/" + id;
+        Money amount = amt.toMoney();
         PaymentIntent p = PaymentIntent.builder()
                 .id(id)
                 .userId(userId)
                 .type(type)
                 .status(PaymentStatus.PROCESSING)
-                .amountValue(amt.getValue())
-                .amountCurrency(amt.getCurrency())
+                .amount(amount)
                 .description(description)
                 .returnUrl(checkoutUrl)
+                .providerClientSecret(psp.createProviderClientSecret(amount, description))
                 .build();
         intents.save(p);
+        psp.paymentCreated(id, amount);
         return PaymentIntentDto.from(p);
     }
 }
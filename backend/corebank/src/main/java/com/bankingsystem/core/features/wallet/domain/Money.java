@@ -0,0 +1,53 @@
+package com.bankingsystem.core.features.wallet.domain;
+
+import com.bankingsystem.core.modules.common.exceptions.BadRequestException;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+
+/**
+ * An exact wallet amount: a count of minor units (cents) and an ISO currency code. Every
+ * currency PayHere settles in has two decimals, so the scale is fixed at {@link #SCALE}.
+ */
+@Embeddable
+public record Money(long minor, String currency) {
+
+    public static final int SCALE = 2;
+
+    public static Money ofMinor(long minor, String currency) {
+        return new Money(minor, currency);
+    }
+
+    /** Rejects values with more than two decimals instead of rounding them. */
+    public static Money of(BigDecimal value, String currency) {
+        if (value == null || currency == null) {
+            throw new BadRequestException("Amount value and currency are required");
+        }
+        try {
+            return new Money(value.movePointRight(SCALE).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Amount must have at most " + SCALE + " decimal places");
+        }
+    }
+
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /** Appends the amount as PayHere expects it: digits, a point and two decimals, no grouping. */
+    public StringBuilder appendAmount(StringBuilder sb) {
+        long units = minor;
+        if (units < 0) {
+            sb.append('-');
+            units = -units;
+        }
+        long fraction = units % 100;
+        sb.append(units / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    public String formatAmount() {
+        return appendAmount(new StringBuilder(20)).toString();
+    }
+}
@@ -0,0 +1,5 @@
+package com.bankingsystem.core.features.wallet.domain;
+
+public enum PayHereNotifyKind {
+    PAYMENT, PREAPPROVE
+}
@@ -1,5 +1,23 @@
 package com.bankingsystem.core.features.wallet.domain;
 
 public enum PaymentStatus {
-    PENDING, PROCESSING, SUCCESS, FAILED, CANCELED
+    PENDING(0), PROCESSING(1), SUCCESS(2), FAILED(2), CANCELED(2);
+
+    private final int rank;
+
+    PaymentStatus(int rank) {
+        this.rank = rank;
+    }
+
+    public boolean isFinal() {
+        return rank == 2;
+    }
+
+    /**
+     * Status only moves forward: PENDING, then PROCESSING, then exactly one final status. A late
+     * or replayed callback can therefore never take a finished payment back to PROCESSING.
+     */
+    public boolean canAdvanceTo(PaymentStatus next) {
+        return next.rank > rank;
+    }
 }
@@ -8,7 +8,9 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "wallet_card_sessions")
+@Table(name = "wallet_card_sessions", indexes = {
+        @Index(name = "idx_card_session_expires", columnList = "expires_at")
+})
 @Getter
 @Setter
 public class CardAddSession {
@@ -22,6 +24,14 @@ public class CardAddSession {
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
+    /** {@code null} only on sessions created before expiry existed; those count as expired. */
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+
     @Column(name = "consumed", nullable = false)
     private boolean consumed;
+
+    public boolean isUsable(OffsetDateTime now) {
+        return !consumed && expiresAt != null && expiresAt.isAfter(now);
+    }
 }
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "wallet_idempotency")
+@Table(name = "wallet_idempotency", indexes = {
+        @Index(name = "idx_idem_created", columnList = "created_at, idem_key")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class IdempotencyKey {
     @Id
@@ -15,13 +17,30 @@ public class IdempotencyKey {
     @Column(name = "request_hash", nullable = false, length = 255)
     private String requestHash;
 
+    /** Legacy JSON response; rows written since response codecs were introduced use {@link #responseBlob}. */
     @Lob
-    @Column(name = "response_json", columnDefinition = "LONGTEXT", nullable = false)
+    @Column(name = "response_json", columnDefinition = "LONGTEXT")
     private String responseJson;
 
+    /** Encoded response, {@code null} while the first request holding the key is still executing. */
+    @Lob
+    @Column(name = "response_blob", columnDefinition = "LONGBLOB")
+    private byte[] responseBlob;
+
+    @Column(name = "response_codec", length = 32)
+    private String responseCodec;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    /** When the current owner claimed the key; a claim without a response goes stale after a timeout. */
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    public boolean hasResponse() {
+        return responseBlob != null || responseJson != null;
+    }
+
     @PrePersist
     void onCreate() { createdAt = Instant.now(); }
 }
@@ -0,0 +1,58 @@
+package com.bankingsystem.core.features.wallet.domain.entity;
+
+import com.bankingsystem.core.features.wallet.domain.PayHereNotifyKind;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A signed PayHere server-to-server notification, recorded before it is applied. Rows are
+ * applied per {@code order_id} in {@code id} order; {@code processed_at} is set once a row has
+ * been applied or given up on.
+ */
+@Entity
+@Table(name = "wallet_payhere_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payhere_inbox_dedupe", columnNames = "dedupe_key"),
+        indexes = @Index(name = "idx_payhere_inbox_pending", columnList = "processed_at, order_id, id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PayHereNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private PayHereNotifyKind kind;
+
+    /** Kind, order, status code and PSP payment id; PSP retries of the same callback share it. */
+    @Column(name = "dedupe_key", nullable = false, length = 191)
+    private String dedupeKey;
+
+    @Column(name = "order_id", nullable = false, length = 64)
+    private String orderId;
+
+    @Column(name = "status_code", length = 8)
+    private String statusCode;
+
+    /** The notify form as JSON. */
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @Column(name = "outcome", length = 16)
+    private String outcome;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+}
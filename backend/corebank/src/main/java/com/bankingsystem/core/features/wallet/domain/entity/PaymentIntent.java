@@ -1,5 +1,6 @@
 package com.bankingsystem.core.features.wallet.domain.entity;
 
+import com.bankingsystem.core.features.wallet.domain.Money;
 import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
 import com.bankingsystem.core.features.wallet.domain.PaymentType;
 import jakarta.persistence.*;
@@ -7,6 +8,8 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -38,12 +41,21 @@ public class PaymentIntent {
     @Column(name = "status", nullable = false, length = 16)
     private PaymentStatus status;
 
+    @Embedded
+    @AttributeOverride(name = "minor", column = @Column(name = "amount_minor", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "amount_currency", nullable = false, length = 8))
+    private Money amount;
+
+    /**
+     * Pre-{@link Money} decimal amount, still written from {@link #amount} because existing
+     * schemas declare the column {@code NOT NULL}. Stop mapping it only after
+     * {@code amount_minor} has been backfilled and the column dropped.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     @Column(name = "amount_value", nullable = false)
     private double amountValue;
 
-    @Column(name = "amount_currency", nullable = false, length = 8)
-    private String amountCurrency;
-
     @Column(name = "description")
     private String description;
 
@@ -78,4 +90,29 @@ public class PaymentIntent {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
+
+    /**
+     * Rows written before {@code amount_minor} existed load with {@code minor = 0}; take the
+     * amount from {@code amount_value} until the backfill has run.
+     */
+    @PostLoad
+    void readLegacyAmount() {
+        if (amount != null && amount.minor() == 0 && amountValue != 0) {
+            long minor = BigDecimal.valueOf(amountValue)
+                    .setScale(Money.SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+            amount = Money.ofMinor(minor, amount.currency());
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void writeLegacyAmount() {
+        if (amount == null) {
+            amountValue = 0;
+        } else if (amount.minor() != 0 || amountValue == 0) {
+            amountValue = amount.toDecimal().doubleValue();
+        }
+    }
 }
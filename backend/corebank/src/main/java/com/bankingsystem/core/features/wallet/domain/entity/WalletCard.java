@@ -8,7 +8,9 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "wallet_cards")
+@Table(name = "wallet_cards",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wallet_cards_default", columnNames = "default_user_id"),
+        indexes = @Index(name = "idx_wallet_cards_user", columnList = "user_id, id"))
 @Getter
 @Setter
 @Builder
@@ -41,6 +43,11 @@ public class WalletCard {
     @Column(name = "is_default", nullable = false)
     private boolean isDefault;
 
+    /** The owner on the default card, {@code NULL} elsewhere; its unique key allows one default per user. */
+    @Column(name = "default_user_id", insertable = false, updatable = false,
+            columnDefinition = "BINARY(16) GENERATED ALWAYS AS (CASE WHEN is_default THEN user_id END)")
+    private UUID defaultUserId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
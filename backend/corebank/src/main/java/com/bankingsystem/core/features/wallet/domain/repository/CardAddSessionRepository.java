@@ -1,7 +1,25 @@
 package com.bankingsystem.core.features.wallet.domain.repository;
 
 import com.bankingsystem.core.features.wallet.domain.entity.CardAddSession;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
 
 public interface CardAddSessionRepository extends JpaRepository<CardAddSession, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardAddSession s WHERE s.id = :id")
+    Optional<CardAddSession> findByIdForUpdate(@Param("id") String id);
+
+    /** Deletes at most {@code limit} sessions that expired before {@code cutoff}; served by {@code idx_card_session_expires}. */
+    @Modifying
+    @Query(value = "DELETE FROM wallet_card_sessions WHERE expires_at IS NULL OR expires_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int purgeExpiredBefore(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
 }
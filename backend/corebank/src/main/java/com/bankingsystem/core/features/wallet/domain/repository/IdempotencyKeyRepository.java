@@ -2,5 +2,51 @@ package com.bankingsystem.core.features.wallet.domain.repository;
 
 import com.bankingsystem.core.features.wallet.domain.entity.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> { }
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /** Atomically claims the key; returns 1 for the caller that inserted the row, 0 if it existed. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO wallet_idempotency (idem_key, request_hash, created_at, claimed_at) " +
+            "VALUES (:key, :hash, :claimedAt, :claimedAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("hash") String hash, @Param("claimedAt") Instant claimedAt);
+
+    /**
+     * Takes over a claim that has no response and was made before {@code staleBefore}, left behind
+     * by a node that died mid-request. Rows claimed before {@code claimed_at} existed count from
+     * {@code created_at}. Returns 1 if the caller now owns the key.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey i SET i.requestHash = :hash, i.claimedAt = :claimedAt " +
+            "WHERE i.idemKey = :key AND i.responseBlob IS NULL AND i.responseJson IS NULL " +
+            "AND COALESCE(i.claimedAt, i.createdAt) < :staleBefore")
+    int takeOverStale(@Param("key") String key,
+                      @Param("hash") String hash,
+                      @Param("claimedAt") Instant claimedAt,
+                      @Param("staleBefore") Instant staleBefore);
+
+    /** Stores the response if the caller's claim still stands; 0 means another request took it over. */
+    @Modifying
+    @Query("UPDATE IdempotencyKey i SET i.responseCodec = :codec, i.responseBlob = :response " +
+            "WHERE i.idemKey = :key AND i.claimedAt = :claimedAt")
+    int storeResponse(@Param("key") String key,
+                      @Param("claimedAt") Instant claimedAt,
+                      @Param("codec") String codec,
+                      @Param("response") byte[] response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey i WHERE i.idemKey = :key AND i.claimedAt = :claimedAt " +
+            "AND i.responseBlob IS NULL AND i.responseJson IS NULL")
+    int releaseClaim(@Param("key") String key, @Param("claimedAt") Instant claimedAt);
+
+    /** Deletes at most {@code limit} keys created before {@code cutoff}; the range predicate is served by {@code idx_idem_created}. */
+    @Modifying
+    @Query(value = "DELETE FROM wallet_idempotency WHERE created_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int purgeCreatedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,44 @@
+package com.bankingsystem.core.features.wallet.domain.repository;
+
+import com.bankingsystem.core.features.wallet.domain.entity.PayHereNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PayHereNotificationRepository extends JpaRepository<PayHereNotification, Long> {
+
+    /** Returns 1 if the notification was recorded, 0 if one with the same dedupe key exists. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO wallet_payhere_inbox " +
+            "(kind, dedupe_key, order_id, status_code, payload, received_at, attempts) " +
+            "VALUES (:kind, :dedupeKey, :orderId, :statusCode, :payload, :receivedAt, 0)", nativeQuery = true)
+    int enqueue(@Param("kind") String kind,
+                @Param("dedupeKey") String dedupeKey,
+                @Param("orderId") String orderId,
+                @Param("statusCode") String statusCode,
+                @Param("payload") String payload,
+                @Param("receivedAt") Instant receivedAt);
+
+    /** Orders with unprocessed notifications, oldest first. */
+    @Query("SELECT n.orderId FROM PayHereNotification n WHERE n.processedAt IS NULL " +
+            "GROUP BY n.orderId ORDER BY MIN(n.id)")
+    List<String> findPendingOrderIds(Pageable page);
+
+    List<PayHereNotification> findByOrderIdAndProcessedAtIsNullOrderByIdAsc(String orderId);
+
+    /** Returns 0 if another worker already processed the row. */
+    @Modifying
+    @Query("UPDATE PayHereNotification n SET n.processedAt = :now, n.outcome = :outcome " +
+            "WHERE n.id = :id AND n.processedAt IS NULL")
+    int markProcessed(@Param("id") Long id, @Param("outcome") String outcome, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE PayHereNotification n SET n.attempts = n.attempts + 1, n.lastError = :error " +
+            "WHERE n.id = :id AND n.processedAt IS NULL")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+}
@@ -1,9 +1,18 @@
 package com.bankingsystem.core.features.wallet.domain.repository;
 
 import com.bankingsystem.core.features.wallet.domain.entity.PaymentIntent;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface PaymentIntentRepository extends JpaRepository<PaymentIntent, String> {
     Optional<PaymentIntent> findByIdempotencyKey(String idempotencyKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaymentIntent p WHERE p.id = :id")
+    Optional<PaymentIntent> findByIdForUpdate(@Param("id") String id);
 }
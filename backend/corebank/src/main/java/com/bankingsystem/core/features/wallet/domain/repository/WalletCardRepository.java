@@ -1,7 +1,10 @@
 package com.bankingsystem.core.features.wallet.domain.repository;
 
 import com.bankingsystem.core.features.wallet.domain.entity.WalletCard;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -26,4 +29,23 @@ public interface WalletCardRepository extends JpaRepository<WalletCard, UUID> {
             "where c.userId = :userId and c.isDefault = true")
     boolean hasDefault(@Param("userId") UUID userId);
 
+    Optional<WalletCard> findFirstByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /**
+     * Locks all of a user's cards in id order through {@code idx_wallet_cards_user}. Default
+     * switches and deletes take it first, so they serialize per user instead of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM WalletCard c WHERE c.userId = :userId ORDER BY c.id")
+    List<WalletCard> lockAllForUser(@Param("userId") UUID userId);
+
+    /** Step one of a default switch; must run before {@link #markDefault} because of {@code uk_wallet_cards_default}. */
+    @Modifying
+    @Query("UPDATE WalletCard c SET c.isDefault = false " +
+            "WHERE c.userId = :userId AND c.isDefault = true AND c.id <> :cardId")
+    int clearDefaultExcept(@Param("userId") UUID userId, @Param("cardId") UUID cardId);
+
+    @Modifying
+    @Query("UPDATE WalletCard c SET c.isDefault = true WHERE c.id = :cardId AND c.userId = :userId")
+    int markDefault(@Param("userId") UUID userId, @Param("cardId") UUID cardId);
 }
@@ -0,0 +1,154 @@
+package com.bankingsystem.core.features.wallet.integration.payhere;
+
+import com.bankingsystem.core.features.wallet.config.PayHereProperties;
+import com.bankingsystem.core.features.wallet.domain.Money;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Auto-submitting HTML forms that hand the browser over to PayHere checkout and card
+ * preapproval. The markup, action URLs, notify URLs and fixed payer fields are compiled once
+ * from {@link PayHereProperties}; a render only escapes and fills in the per-order values.
+ */
+@Component
+public class PayHereCheckoutForm {
+
+    public static final Money PREAPPROVE_AMOUNT = Money.ofMinor(1000, "LKR"); // tokenization preauth (voided by PSP per doc)
+
+    private final PayHereSignature signature;
+    private final String serverBaseUrl;
+    private final Template checkout;
+    private final Template preapprove;
+
+    public PayHereCheckoutForm(PayHereProperties cfg, PayHereSignature signature) {
+        this.signature = signature;
+        this.serverBaseUrl = cfg.getServerBaseUrl();
+        String host = cfg.isSandbox() ? "https://sandbox.payhere.lk" : "https://www.payhere.lk";
+        this.checkout = compile(host + "/pay/checkout", cfg,
+                serverBaseUrl + "/api/v1/wallet/payhere/notify", true);
+        this.preapprove = compile(host + "/pay/preapprove", cfg,
+                serverBaseUrl + "/api/v1/wallet/payhere/notify/preapprove", false);
+    }
+
+    public byte[] checkout(String intentId, String description, Money amount) {
+        return checkout.render(
+                serverBaseUrl + "/api/v1/wallet/payhere/return?intentId=" + intentId,
+                serverBaseUrl + "/api/v1/wallet/payhere/cancel?intentId=" + intentId,
+                intentId,
+                description != null ? description : "Wallet Payment",
+                amount.currency(),
+                amount.formatAmount(),
+                signature.requestHash(intentId, amount));
+    }
+
+    public byte[] preapprove(String sessionId) {
+        String encoded = URLEncoder.encode(sessionId, StandardCharsets.UTF_8);
+        return preapprove.render(
+                serverBaseUrl + "/api/v1/wallet/payhere/cards/return?sessionId=" + encoded,
+                serverBaseUrl + "/api/v1/wallet/payhere/cards/cancel?sessionId=" + encoded,
+                sessionId,
+                PREAPPROVE_AMOUNT.currency(),
+                PREAPPROVE_AMOUNT.formatAmount(),
+                signature.requestHash(sessionId, PREAPPROVE_AMOUNT));
+    }
+
+    private static Template compile(String action, PayHereProperties cfg, String notifyUrl, boolean items) {
+        Template.Builder t = new Template.Builder()
+                .literal("<html><body onload='document.forms[0].submit()'><form method='post' action='")
+                .literal(escape(action)).literal("'>")
+                .field("merchant_id", cfg.getMerchantId())
+                .slot("return_url")
+                .slot("cancel_url")
+                .field("notify_url", notifyUrl)
+                // Minimal payer details (PayHere requires these fields)
+                .field("first_name", "Customer")
+                .field("last_name", "App")
+                .field("email", "na@example.com")
+                .field("phone", "0770000000")
+                .field("address", "N/A")
+                .field("city", "Colombo")
+                .field("country", "Sri Lanka")
+                .slot("order_id");
+        if (items) t.slot("items");
+        return t.slot("currency")
+                .slot("amount")
+                .slot("hash")
+                .literal("</form><p>Redirecting…</p></body></html>")
+                .build();
+    }
+
+    /** Literal runs with value slots between them; every slot is a hidden input's value. */
+    private static final class Template {
+        private final String[] literals;
+        private final int size;
+
+        private Template(List<String> literals) {
+            this.literals = literals.toArray(String[]::new);
+            int n = 0;
+            for (String l : this.literals) n += l.length();
+            this.size = n;
+        }
+
+        byte[] render(String... values) {
+            StringBuilder sb = new StringBuilder(size + 256);
+            sb.append(literals[0]);
+            for (int i = 0; i < values.length; i++) {
+                appendEscaped(sb, values[i]);
+                sb.append(literals[i + 1]);
+            }
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        static final class Builder {
+            private final List<String> literals = new ArrayList<>();
+            private final StringBuilder current = new StringBuilder();
+
+            Builder literal(String s) {
+                current.append(s);
+                return this;
+            }
+
+            Builder field(String name, String value) {
+                return literal("<input type='hidden' name='" + name + "' value='" + escape(value) + "'>");
+            }
+
+            Builder slot(String name) {
+                current.append("<input type='hidden' name='").append(name).append("' value='");
+                literals.add(current.toString());
+                current.setLength(0);
+                current.append("'>");
+                return this;
+            }
+
+            Template build() {
+                literals.add(current.toString());
+                return new Template(literals);
+            }
+        }
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder();
+        appendEscaped(sb, s);
+        return sb.toString();
+    }
+
+    private static void appendEscaped(StringBuilder sb, String s) {
+        if (s == null) return;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '\'' -> sb.append("&#39;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
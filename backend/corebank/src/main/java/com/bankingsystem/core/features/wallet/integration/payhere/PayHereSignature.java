@@ -1,46 +1,124 @@
 package com.bankingsystem.core.features.wallet.integration.payhere;
 
-import java.math.BigInteger;
+import com.bankingsystem.core.features.wallet.config.PayHereProperties;
+import com.bankingsystem.core.features.wallet.domain.Money;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
-public final class PayHereSignature {
-    private PayHereSignature() {}
+/**
+ * PayHere MD5 signatures for checkout requests and notify callbacks. The merchant secret digest
+ * is computed once; digests and scratch buffers are per thread, so signing a request allocates
+ * only the returned hash string and verifying a callback allocates nothing for ASCII input.
+ */
+@Component
+public class PayHereSignature {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
-    public static String requestHash(String merchantId, String orderId, double amount, String currency, String merchantSecret) {
-        DecimalFormat df = new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.US));
-        String amountStr = df.format(amount);
-        String secretMd5 = md5(merchantSecret).toUpperCase();
-        String raw = merchantId + orderId + amountStr + currency + secretMd5;
-        return md5(raw).toUpperCase();
+    private static final class Scratch {
+        final MessageDigest md5;
+        final byte[] buf = new byte[256];
+        final char[] hex = new char[32];
+        final byte[] sig = new byte[16];
+        final StringBuilder amount = new StringBuilder(24);
+
+        Scratch() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
     }
 
-    public static boolean verifyNotify(Map<String, String> form, String merchantSecret) {
-        String merchantId = form.get("merchant_id");
-        String orderId = form.get("order_id");
-        String amount = form.get("payhere_amount");
-        String currency = form.get("payhere_currency");
-        String statusCode = form.get("status_code");
+    private final String merchantId;
+    /** Upper-case hex MD5 of the merchant secret, as it enters every signature. */
+    private final byte[] secretMd5;
+
+    public PayHereSignature(PayHereProperties cfg) {
+        this.merchantId = cfg.getMerchantId();
+        Scratch s = SCRATCH.get();
+        update(s, String.valueOf(cfg.getMerchantSecret()));
+        this.secretMd5 = new String(toHex(s, s.md5.digest())).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String requestHash(String orderId, Money amount) {
+        Scratch s = SCRATCH.get();
+        update(s, merchantId);
+        update(s, orderId);
+        s.amount.setLength(0);
+        update(s, amount.appendAmount(s.amount));
+        update(s, amount.currency());
+        s.md5.update(secretMd5);
+        return new String(toHex(s, s.md5.digest()));
+    }
+
+    /** The {@code md5sig} PayHere sends with a notification; used by the PSP simulator. */
+    public String notifyHash(String orderId, String amount, String currency, String statusCode) {
+        Scratch s = SCRATCH.get();
+        update(s, merchantId);
+        update(s, orderId);
+        update(s, amount);
+        update(s, currency);
+        update(s, statusCode);
+        s.md5.update(secretMd5);
+        return new String(toHex(s, s.md5.digest()));
+    }
+
+    public boolean verifyNotify(Map<String, String> form) {
         String md5sig = form.get("md5sig");
-        String secretMd5 = md5(merchantSecret).toUpperCase();
-        String raw = merchantId + orderId + amount + currency + statusCode + secretMd5;
-        String calc = md5(raw).toUpperCase();
-        return calc.equalsIgnoreCase(md5sig);
-    }
-
-    private static String md5(String s) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(s.getBytes());
-            String out = new BigInteger(1, digest).toString(16).toUpperCase();
-            StringBuilder sb = new StringBuilder(out);
-            while (sb.length() < 32) sb.insert(0, '0');
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        if (md5sig == null || md5sig.length() != 32) return false;
+        Scratch s = SCRATCH.get();
+        if (!parseHex(md5sig, s.sig)) return false;
+        update(s, form.get("merchant_id"));
+        update(s, form.get("order_id"));
+        update(s, form.get("payhere_amount"));
+        update(s, form.get("payhere_currency"));
+        update(s, form.get("status_code"));
+        s.md5.update(secretMd5);
+        return MessageDigest.isEqual(s.md5.digest(), s.sig);
+    }
+
+    /** Feeds {@code value} as UTF-8; {@code null} is signed as the string "null", like plain concatenation. */
+    private static void update(Scratch s, CharSequence value) {
+        if (value == null) value = "null";
+        int len = value.length();
+        if (len > s.buf.length) {
+            s.md5.update(value.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c > 0x7f) {
+                s.md5.update(value.toString().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            s.buf[i] = (byte) c;
+        }
+        s.md5.update(s.buf, 0, len);
+    }
+
+    private static char[] toHex(Scratch s, byte[] digest) {
+        for (int i = 0; i < digest.length; i++) {
+            s.hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            s.hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return s.hex;
+    }
+
+    private static boolean parseHex(String hex, byte[] out) {
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(hex.charAt(i * 2), 16);
+            int lo = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) return false;
+            out[i] = (byte) ((hi << 4) | lo);
         }
+        return true;
     }
 }
@@ -1,16 +1,26 @@
 package com.bankingsystem.core.features.wallet.integration.psp;
 
+import com.bankingsystem.core.features.wallet.domain.Money;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import java.util.UUID;
 
+/** Default client: PayHere is reached through the browser redirect and calls back on its own. */
 @Component
+@ConditionalOnProperty(name = "wallet.psp.provider", havingValue = "payhere", matchIfMissing = true)
 public class FakePspClient implements PspClient {
     @Override
     public String createAddCardSessionUrl(String sessionId, String returnUrl) {
         return returnUrl + "?sessionId=" + sessionId;
     }
     @Override
-    public String createProviderClientSecret(double amount, String currency, String description) {
+    public String createProviderClientSecret(Money amount, String description) {
         return "cs_" + UUID.randomUUID();
     }
+    @Override
+    public void paymentCreated(String intentId, Money amount) {
+    }
+    @Override
+    public void cardSessionCreated(String sessionId) {
+    }
 }
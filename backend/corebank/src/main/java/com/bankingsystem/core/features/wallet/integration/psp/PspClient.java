@@ -1,6 +1,14 @@
 package com.bankingsystem.core.features.wallet.integration.psp;
 
+import com.bankingsystem.core.features.wallet.domain.Money;
+
 public interface PspClient {
     String createAddCardSessionUrl(String sessionId, String returnUrl);
-    String createProviderClientSecret(double amount, String currency, String description);
+    String createProviderClientSecret(Money amount, String description);
+
+    /** A payment intent was created in the current transaction; a PSP that settles on its own reacts after commit. */
+    void paymentCreated(String intentId, Money amount);
+
+    /** A card-add session was created in the current transaction. */
+    void cardSessionCreated(String sessionId);
 }
@@ -0,0 +1,193 @@
+package com.bankingsystem.core.features.wallet.integration.psp;
+
+import com.bankingsystem.core.features.wallet.config.PayHereProperties;
+import com.bankingsystem.core.features.wallet.domain.Money;
+import com.bankingsystem.core.features.wallet.integration.payhere.PayHereCheckoutForm;
+import com.bankingsystem.core.features.wallet.integration.payhere.PayHereSignature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for PayHere, for load tests without the real PSP. Every payment and card
+ * session created by the wallet is settled by a signed callback posted to the application's own
+ * notify endpoints ({@code payhere.server-base-url}), exactly as PayHere would call them.
+ * <p>
+ * Each callback is sent after a latency drawn uniformly from
+ * {@code wallet.psp.simulator.latency-min-ms..latency-max-ms}. A {@code failure-rate} share of
+ * payments are declined (status -2) and a {@code duplicate-rate} share of callbacks are sent a
+ * second time after another latency draw, like PSP retries.
+ * <p>
+ * Only exists under the {@code bench} or {@code loadtest} profile and with
+ * {@code wallet.psp.provider=simulator}, and refuses to start unless {@code payhere.sandbox} is
+ * on: it signs successful callbacks with the merchant secret, so it must never run against a
+ * live merchant.
+ */
+@Slf4j
+@Component
+@Profile({"bench", "loadtest"})
+@ConditionalOnProperty(name = "wallet.psp.provider", havingValue = "simulator")
+public class SimulatedPspClient implements PspClient {
+
+    private final PayHereProperties cfg;
+    private final PayHereSignature signature;
+    private final WebClient client;
+    private final ScheduledExecutorService scheduler;
+    private final long latencyMinMs;
+    private final long latencyMaxMs;
+    private final double failureRate;
+    private final double duplicateRate;
+    private final AtomicLong paymentIds = new AtomicLong(320_000_000_000L);
+
+    private final MeterRegistry meterRegistry;
+    private final Timer callbacks;
+
+    public SimulatedPspClient(PayHereProperties cfg,
+                              PayHereSignature signature,
+                              MeterRegistry meterRegistry,
+                              @Value("${wallet.psp.simulator.latency-min-ms:50}") long latencyMinMs,
+                              @Value("${wallet.psp.simulator.latency-max-ms:500}") long latencyMaxMs,
+                              @Value("${wallet.psp.simulator.failure-rate:0.05}") double failureRate,
+                              @Value("${wallet.psp.simulator.duplicate-rate:0.1}") double duplicateRate,
+                              @Value("${wallet.psp.simulator.threads:2}") int threads) {
+        if (!cfg.isSandbox()) {
+            throw new IllegalStateException("PSP simulator requires payhere.sandbox=true");
+        }
+        this.cfg = cfg;
+        this.signature = signature;
+        this.client = WebClient.builder().baseUrl(cfg.getServerBaseUrl()).build();
+        this.scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "psp-simulator");
+            t.setDaemon(true);
+            return t;
+        });
+        this.latencyMinMs = latencyMinMs;
+        this.latencyMaxMs = Math.max(latencyMinMs, latencyMaxMs);
+        this.failureRate = failureRate;
+        this.duplicateRate = duplicateRate;
+        this.meterRegistry = meterRegistry;
+        this.callbacks = Timer.builder("wallet.psp.simulator.callback")
+                .description("Round trip of simulated PSP callbacks to the notify endpoints")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        log.warn("PSP simulator active: callbacks go to {} (latency {}-{} ms, failure {}, duplicates {})",
+                cfg.getServerBaseUrl(), latencyMinMs, latencyMaxMs, failureRate, duplicateRate);
+    }
+
+    @Override
+    public String createAddCardSessionUrl(String sessionId, String returnUrl) {
+        return returnUrl + "?sessionId=" + sessionId;
+    }
+
+    @Override
+    public String createProviderClientSecret(Money amount, String description) {
+        return "sim_" + UUID.randomUUID();
+    }
+
+    @Override
+    public void paymentCreated(String intentId, Money amount) {
+        boolean declined = ThreadLocalRandom.current().nextDouble() < failureRate;
+        String statusCode = declined ? "-2" : "2";
+        String amountStr = amount.formatAmount();
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("merchant_id", cfg.getMerchantId());
+        form.add("order_id", intentId);
+        form.add("payment_id", String.valueOf(paymentIds.incrementAndGet()));
+        form.add("payhere_amount", amountStr);
+        form.add("payhere_currency", amount.currency());
+        form.add("status_code", statusCode);
+        form.add("status_message", declined ? "Simulated decline" : "Successfully completed the payment.");
+        form.add("method", "VISA");
+        form.add("md5sig", signature.notifyHash(intentId, amountStr, amount.currency(), statusCode));
+        afterCommit(() -> schedule("/api/v1/wallet/payhere/notify", form, "payment", statusCode));
+    }
+
+    @Override
+    public void cardSessionCreated(String sessionId) {
+        Money amount = PayHereCheckoutForm.PREAPPROVE_AMOUNT;
+        String amountStr = amount.formatAmount();
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("merchant_id", cfg.getMerchantId());
+        form.add("order_id", sessionId);
+        form.add("payment_id", String.valueOf(paymentIds.incrementAndGet()));
+        form.add("payhere_amount", amountStr);
+        form.add("payhere_currency", amount.currency());
+        form.add("status_code", "2");
+        form.add("method", "VISA");
+        form.add("customer_token", "sim_tok_" + UUID.randomUUID().toString().replace("-", ""));
+        form.add("card_no", "************" + (1000 + ThreadLocalRandom.current().nextInt(9000)));
+        form.add("card_expiry", "12/30");
+        form.add("md5sig", signature.notifyHash(sessionId, amountStr, amount.currency(), "2"));
+        afterCommit(() -> schedule("/api/v1/wallet/payhere/notify/preapprove", form, "preapprove", "2"));
+    }
+
+    private void schedule(String path, MultiValueMap<String, String> form, String kind, String statusCode) {
+        scheduler.schedule(() -> send(path, form, kind, statusCode), latency(), TimeUnit.MILLISECONDS);
+        if (ThreadLocalRandom.current().nextDouble() < duplicateRate) {
+            long again = latency() + latency();
+            scheduler.schedule(() -> send(path, form, kind, statusCode), again, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void send(String path, MultiValueMap<String, String> form, String kind, String statusCode) {
+        long start = System.nanoTime();
+        client.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData(form))
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(
+                        ok -> {
+                            callbacks.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            meterRegistry.counter("wallet.psp.simulator.sent", "kind", kind, "status", statusCode).increment();
+                        },
+                        e -> {
+                            meterRegistry.counter("wallet.psp.simulator.errors", "kind", kind).increment();
+                            log.warn("Simulated {} callback for {} failed: {}", kind, form.getFirst("order_id"), e.getMessage());
+                        });
+    }
+
+    private long latency() {
+        return latencyMinMs == latencyMaxMs
+                ? latencyMinMs
+                : ThreadLocalRandom.current().nextLong(latencyMinMs, latencyMaxMs + 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,22 +1,20 @@
 package com.bankingsystem.core.features.wallet.interfaces;
 
+import com.bankingsystem.core.features.wallet.application.DeadCardSessionCache;
+import com.bankingsystem.core.features.wallet.application.PayHereCheckoutPages;
+import com.bankingsystem.core.features.wallet.application.PayHereNotifyInbox;
 import com.bankingsystem.core.features.wallet.config.PayHereProperties;
-import com.bankingsystem.core.features.wallet.domain.entity.CardAddSession;
-import com.bankingsystem.core.features.wallet.domain.entity.WalletCard;
+import com.bankingsystem.core.features.wallet.domain.PayHereNotifyKind;
 import com.bankingsystem.core.features.wallet.domain.repository.CardAddSessionRepository;
-import com.bankingsystem.core.features.wallet.domain.repository.WalletCardRepository;
+import com.bankingsystem.core.features.wallet.integration.payhere.PayHereCheckoutForm;
 import com.bankingsystem.core.features.wallet.integration.payhere.PayHereSignature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.time.OffsetDateTime;
 import java.util.*;
 
@@ -25,122 +23,39 @@ import java.util.*;
 @RequiredArgsConstructor
 public class PayHereCardController {
 
+    private static final MediaType HTML = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+    private static final byte[] SESSION_EXPIRED =
+            "<html><body><p>Session expired.</p></body></html>".getBytes(StandardCharsets.UTF_8);
+
     private final PayHereProperties cfg;
+    private final PayHereSignature signature;
+    private final PayHereCheckoutForm checkoutForm;
+    private final PayHereCheckoutPages pages;
     private final CardAddSessionRepository sessions;
-    private final WalletCardRepository cards;
+    private final DeadCardSessionCache deadSessions;
+    private final PayHereNotifyInbox inbox;
 
     @GetMapping(value = "/preapprove/{sessionId}", produces = MediaType.TEXT_HTML_VALUE)
-    public String preapprove(@PathVariable String sessionId) {
-        Optional<CardAddSession> s = sessions.findById(sessionId);
-        if (s.isEmpty() || s.get().isConsumed()) {
-            return "<html><body><p>Session expired.</p></body></html>";
+    public ResponseEntity<byte[]> preapprove(@PathVariable String sessionId) {
+        if (deadSessions.isDead(sessionId)) {
+            return ResponseEntity.ok().contentType(HTML).body(SESSION_EXPIRED);
         }
-
-        String action = cfg.isSandbox()
-                ? "https://sandbox.payhere.lk/pay/preapprove"
-                : "https://www.payhere.lk/pay/preapprove";
-
-        String orderId = sessionId;
-        String currency = "LKR";
-        double amount = 10.00; // tokenization preauth (voided by PSP per doc)
-        DecimalFormat df = new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.US));
-        String amountStr = df.format(amount);
-        String hash = PayHereSignature.requestHash(cfg.getMerchantId(), orderId, amount, currency, cfg.getMerchantSecret());
-
-        String returnUrl = cfg.getServerBaseUrl() + "/api/v1/wallet/payhere/cards/return?sessionId=" + url(orderId);
-        String cancelUrl = cfg.getServerBaseUrl() + "/api/v1/wallet/payhere/cards/cancel?sessionId=" + url(orderId);
-        String notifyUrl = cfg.getServerBaseUrl() + "/api/v1/wallet/payhere/notify/preapprove";
-
-        MultiValueMap<String,String> fields = new LinkedMultiValueMap<>();
-        fields.add("merchant_id", cfg.getMerchantId());
-        fields.add("return_url", returnUrl);
-        fields.add("cancel_url", cancelUrl);
-        fields.add("notify_url", notifyUrl);
-        // Minimal payer details (PayHere requires these fields)
-        fields.add("first_name", "Customer");
-        fields.add("last_name", "App");
-        fields.add("email", "na@example.com");
-        fields.add("phone", "0770000000");
-        fields.add("address", "N/A");
-        fields.add("city", "Colombo");
-        fields.add("country", "Sri Lanka");
-        fields.add("order_id", orderId);
-        fields.add("currency", currency);
-        fields.add("amount", amountStr);
-        fields.add("hash", hash);
-
-        StringBuilder inputs = new StringBuilder();
-        for (Map.Entry<String, List<String>> e : fields.entrySet()) {
-            for (String v : e.getValue()) {
-                inputs.append("<input type='hidden' name='").append(e.getKey())
-                        .append("' value='").append(escape(v)).append("'>");
-            }
+        PayHereCheckoutPages.Page page = pages.getPage(sessionId, () -> sessions.findById(sessionId)
+                .filter(s -> s.isUsable(OffsetDateTime.now()))
+                .map(s -> new PayHereCheckoutPages.Page(checkoutForm.preapprove(s.getId()), s.getExpiresAt()))
+                .orElse(null));
+        if (page == null || !page.expiresAt().isAfter(OffsetDateTime.now())) {
+            deadSessions.markDead(sessionId);
+            return ResponseEntity.ok().contentType(HTML).body(SESSION_EXPIRED);
         }
-        return "<html><body onload='document.forms[0].submit()'>"
-                + "<form method='post' action='" + action + "'>" + inputs + "</form>"
-                + "<p>Redirecting…</p></body></html>";
+        return ResponseEntity.ok().contentType(HTML).body(page.html());
     }
 
     @PostMapping(value = "/notify/preapprove", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    @Transactional
     public String notifyPreapprove(@RequestParam Map<String,String> form) {
         // Verify md5 signature
-        if (!PayHereSignature.verifyNotify(form, cfg.getMerchantSecret())) return "invalid";
-
-        String statusCode = form.getOrDefault("status_code", "");
-        String orderId    = form.getOrDefault("order_id", "");
-        String token      = firstNonEmpty(form.get("customer_token"), form.get("recurring_token"), form.get("token"));
-        String method     = form.getOrDefault("method", "CARD");
-        String masked     = firstNonEmpty(form.get("masked_card"), form.get("card_no"));
-        String expiry     = form.getOrDefault("card_expiry", ""); // MM/YY or MM/YYYY
-
-        if (!"2".equals(statusCode)) { // PayHere: 2 == success
-            // Mark session consumed but don't create a card
-            sessions.findById(orderId).ifPresent(s -> { s.setConsumed(true); sessions.save(s); });
-            return "ignored";
-        }
-
-        Optional<CardAddSession> sOpt = sessions.findById(orderId);
-        if (sOpt.isEmpty()) return "unknown-session";
-        CardAddSession s = sOpt.get();
-        if (s.isConsumed()) return "already";
-
-        // Derive brand + last4
-        String brand = method;
-        String last4 = "";
-        if (masked != null) {
-            // masked may be like XXXX-XXXX-1234 or **** **** **** 1234
-            String digits = masked.replaceAll("[^0-9]", "");
-            if (digits.length() >= 4) last4 = digits.substring(digits.length() - 4);
-        }
-
-        Integer mm = null, yy = null;
-        if (expiry.matches("\\d{2}/\\d{2,4}")) {
-            String[] parts = expiry.split("/");
-            try {
-                mm = Integer.parseInt(parts[0]);
-                int y = Integer.parseInt(parts[1]);
-                yy = (y < 100) ? 2000 + y : y;
-            } catch (Exception ignored) {}
-        }
-
-        // First card becomes default
-        boolean makeDefault = !cards.existsByUserIdAndIsDefaultTrue(s.getUserId());
-
-        WalletCard card = WalletCard.builder()
-                .id(UUID.randomUUID())
-                .userId(s.getUserId())
-                .brand(brand)
-                .last4(last4)
-                .expiryMonth(mm)
-                .expiryYear(yy)
-                .customerToken(token)
-                .isDefault(makeDefault)
-                .build();
-
-        cards.save(card);
-        s.setConsumed(true);
-        sessions.save(s);
+        if (!signature.verifyNotify(form)) return "invalid";
+        inbox.record(PayHereNotifyKind.PREAPPROVE, form);
         return "OK";
     }
 
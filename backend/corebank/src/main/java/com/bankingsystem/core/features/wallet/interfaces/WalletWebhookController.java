@@ -1,8 +1,7 @@
 package com.bankingsystem.core.features.wallet.interfaces;
 
+import com.bankingsystem.core.features.wallet.application.WalletService;
 import com.bankingsystem.core.features.wallet.domain.PaymentStatus;
-import com.bankingsystem.core.features.wallet.domain.entity.PaymentIntent;
-import com.bankingsystem.core.features.wallet.domain.repository.PaymentIntentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,14 +11,11 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class WalletWebhookController {
 
-    private final PaymentIntentRepository intents;
+    private final WalletService wallet;
 
     @PostMapping
     public ResponseEntity<Void> handle(@RequestParam String intentId, @RequestParam String status) {
-        PaymentIntent p = intents.findById(intentId).orElse(null);
-        if (p == null) return ResponseEntity.ok().build();
-        p.setStatus(PaymentStatus.valueOf(status.toUpperCase()));
-        intents.save(p);
+        wallet.applyWebhookStatus(intentId, PaymentStatus.valueOf(status.toUpperCase()));
         return ResponseEntity.ok().build();
     }
 }
@@ -1,9 +1,20 @@
 package com.bankingsystem.core.features.wallet.interfaces.dto;
 
+import com.bankingsystem.core.features.wallet.domain.Money;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class AmountDto {
-    private double value;
+    private BigDecimal value;
     private String currency;
+
+    public static AmountDto from(Money m) {
+        return new AmountDto(m.toDecimal(), m.currency());
+    }
+
+    public Money toMoney() {
+        return Money.of(value, currency);
+    }
 }
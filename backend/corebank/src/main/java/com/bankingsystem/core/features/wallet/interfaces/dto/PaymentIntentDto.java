@@ -17,7 +17,7 @@ public class PaymentIntentDto {
         return PaymentIntentDto.builder()
                 .intentId(p.getId())
                 .status(p.getStatus())
-                .amount(new AmountDto(p.getAmountValue(), p.getAmountCurrency()))
+                .amount(AmountDto.from(p.getAmount()))
                 .description(p.getDescription())
                 .returnUrl(p.getReturnUrl())
                 .providerClientSecret(p.getProviderClientSecret())
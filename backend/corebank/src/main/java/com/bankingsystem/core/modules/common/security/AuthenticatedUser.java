@@ -0,0 +1,41 @@
+package com.bankingsystem.core.modules.common.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Principal placed in the {@code SecurityContext} by {@link JwtAuthFilter}. It carries the ids
+ * services need so they don't have to resolve the username against the users table again.
+ * {@code customerId} is {@code null} for users without a customer profile (e.g. staff).
+ */
+public record AuthenticatedUser(UUID userId, UUID customerId, String username, String role) implements UserDetails {
+
+    public static Optional<AuthenticatedUser> from(Authentication auth) {
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -18,6 +19,10 @@ public class CurrentUserService {
         if (auth == null || auth.getName() == null) {
             throw new IllegalStateException("Unauthenticated");
         }
+        Optional<AuthenticatedUser> principal = AuthenticatedUser.from(auth);
+        if (principal.isPresent()) {
+            return principal.get().userId();
+        }
         String username = auth.getName();
         return users.findByUsername(username)
                 .map(User::getUserId)
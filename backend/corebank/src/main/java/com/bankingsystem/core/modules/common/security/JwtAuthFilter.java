@@ -2,6 +2,8 @@ package com.bankingsystem.core.modules.common.security;
 
 import com.bankingsystem.core.features.auth.domain.Session;
 import com.bankingsystem.core.features.auth.domain.repository.SessionRepository;
+import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,9 +26,10 @@ import java.util.Optional;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserRepository userRepository;
     @Autowired
     private final SessionRepository sessionRepository;
+    private final SessionTokenCache sessionTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -53,32 +55,42 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtUtils.getUserNameFromJwtToken(jwt);
+        final JwtClaims claims;
+        try {
+            claims = jwtUtils.parseVerified(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        username = claims.subject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            Optional<Session> sessionOpt = sessionRepository.findByToken(jwt);
-            if (sessionOpt.isEmpty() || !sessionOpt.get().getIsActive()) {
+            AuthenticatedUser principal = sessionTokenCache.get(jwt, () -> loadActiveSession(jwt, username));
+            if (principal == null) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token is inactive or logged out");
                 return;
             }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtils.validateJwtToken(jwt)) {
-                String role = jwtUtils.getRoleFromJwtToken(jwt);
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
+            SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + claims.role().toUpperCase());
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, Collections.singletonList(authority));
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(principal, null, Collections.singletonList(authority));
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
 
         }
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser loadActiveSession(String jwt, String username) {
+        Optional<Session> sessionOpt = sessionRepository.findByToken(jwt);
+        if (sessionOpt.isEmpty() || !sessionOpt.get().getIsActive()) {
+            return null;
+        }
+        return userRepository.findPrincipalByUsername(username).orElse(null);
+    }
 }
@@ -0,0 +1,9 @@
+package com.bankingsystem.core.modules.common.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims of a token whose signature and expiry have already been verified.
+ */
+public record JwtClaims(String subject, String role, Instant expiresAt) {
+}
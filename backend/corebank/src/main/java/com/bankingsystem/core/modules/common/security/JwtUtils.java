@@ -17,14 +17,15 @@ public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
     private final JwtProperties jwtProperties;
+    private final Key signingKey;
+    private final JwtParser parser;
 
     public JwtUtils(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
-    }
-
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateJwtToken(String username, String roleName) {
@@ -33,34 +34,36 @@ public class JwtUtils {
                 .claim("role", roleName)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token once and returns its claims.
+     *
+     * @throws JwtException             if the token is malformed, tampered with or expired
+     * @throws IllegalArgumentException if the token is blank
+     */
+    public JwtClaims parseVerified(String token) {
+        Claims body = parser.parseClaimsJws(token).getBody();
+        Date expiration = body.getExpiration();
+        return new JwtClaims(
+                body.getSubject(),
+                body.get("role", String.class),
+                expiration != null ? expiration.toInstant() : null);
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseVerified(token).subject();
     }
 
     public String getRoleFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parseVerified(token).role();
     }
 
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
+            parseVerified(authToken);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("JWT validation error: {}", e.getMessage());
@@ -44,6 +44,8 @@ public class SecurityConfig {
                                 "/favicon.svg",
                                 "/favicon.png",
                                 "/error").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/customer/**").hasRole("CUSTOMER")
                         .requestMatchers("/api/v1/auth/change-password").authenticated()
@@ -1,45 +1,68 @@
 package com.bankingsystem.core.modules.common.security;
 
-import com.bankingsystem.core.features.accounts.domain.Account;
-import com.bankingsystem.core.features.customer.domain.Customer;
 import com.bankingsystem.core.features.accounts.domain.repository.AccountRepository;
-import com.bankingsystem.core.features.customer.domain.repository.CustomerRepository;
-import com.bankingsystem.core.features.auth.domain.repository.UserRepository;
+import com.bankingsystem.core.features.transactions.domain.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Ownership checks used from {@code @PreAuthorize}. Each check is a single existence query and
+ * its answer is memoized on the current request, so a request guarded more than once pays for
+ * it only once.
+ */
 @Service("securityService")
 @RequiredArgsConstructor
 public class SecurityService {
 
-    private final UserRepository userRepository;
-    private final CustomerRepository customerRepository;
+    private static final String CACHE_PREFIX = SecurityService.class.getName() + ".";
+
     private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
 
     public boolean isAccountOwner(Authentication authentication, UUID accountId) {
-        String username = authentication.getName();
-
-        UUID userId = userRepository.findByUsername(username)
-                .map(u -> u.getUserId())
-                .orElse(null);
-
-        if (userId == null) {
+        if (authentication == null || accountId == null) {
             return false;
         }
+        return perRequest("account." + accountId, () -> AuthenticatedUser.from(authentication)
+                .map(p -> p.customerId() != null
+                        && accountRepository.existsByAccountIdAndCustomerCustomerId(accountId, p.customerId()))
+                .orElseGet(() -> accountRepository.existsByAccountIdAndOwnerUsername(accountId, authentication.getName())));
+    }
 
-        Customer customer = customerRepository.findByUserUserId(userId).orElse(null);
-        if (customer == null) {
+    public boolean isTransactionOwner(Authentication authentication, String transactionId) {
+        if (authentication == null || transactionId == null) {
             return false;
         }
-
-        Account account = accountRepository.findById(accountId).orElse(null);
-        if (account == null) {
+        UUID id;
+        try {
+            id = UUID.fromString(transactionId);
+        } catch (IllegalArgumentException e) {
             return false;
         }
+        return perRequest("transaction." + id, () -> AuthenticatedUser.from(authentication)
+                .map(p -> p.customerId() != null
+                        && transactionRepository.existsByTransactionIdAndAccountCustomerCustomerId(id, p.customerId()))
+                .orElseGet(() -> transactionRepository.existsByTransactionIdAndOwnerUsername(id, authentication.getName())));
+    }
 
-        return account.getCustomer().getCustomerId().equals(customer.getCustomerId());
+    private boolean perRequest(String key, Supplier<Boolean> check) {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) {
+            return check.get();
+        }
+        String name = CACHE_PREFIX + key;
+        Object cached = attrs.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof Boolean owned) {
+            return owned;
+        }
+        boolean owned = check.get();
+        attrs.setAttribute(name, owned, RequestAttributes.SCOPE_REQUEST);
+        return owned;
     }
 }
@@ -0,0 +1,86 @@
+package com.bankingsystem.core.modules.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of active sessions keyed by the SHA-256 of the bearer token,
+ * so steady-state requests authenticate without touching the sessions/users tables.
+ * Values are the {@link AuthenticatedUser} principal resolved when the session was first seen.
+ * <p>
+ * Entries are node-local: a logout on another node is only observed once the entry expires,
+ * so keep the TTL short.
+ */
+@Component
+public class SessionTokenCache {
+
+    private final Cache<String, AuthenticatedUser> sessions;
+
+    public SessionTokenCache(MeterRegistry meterRegistry,
+                             @Value("${security.session-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${security.session-cache.max-size:100000}") long maxSize) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "auth.sessions");
+    }
+
+    /**
+     * Returns the cached principal for the token, calling {@code loader} on a miss.
+     * A {@code null} from the loader (inactive or unknown session) is not cached.
+     */
+    public AuthenticatedUser get(String token, Supplier<AuthenticatedUser> loader) {
+        return sessions.get(hash(token), k -> loader.get());
+    }
+
+    public void invalidate(String token) {
+        sessions.invalidate(hash(token));
+    }
+
+    /**
+     * Drops every cached session of the user, e.g. after their customer profile was created or
+     * removed. Runs after commit when called inside a transaction so a concurrent request cannot
+     * re-cache the old state.
+     */
+    public void invalidateUser(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUser(userId);
+                }
+            });
+        } else {
+            evictUser(userId);
+        }
+    }
+
+    private void evictUser(UUID userId) {
+        sessions.asMap().values().removeIf(u -> u.userId().equals(userId));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bankingsystem.core.modules.common.support.paging;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * One page of a listing without a total count. Clients page forward while {@code hasNext} is
+ * true. Paging is by offset, so a deep page still reads and skips every row before it; only the
+ * count query is saved. Listings that must stay fast at any depth use a keyset cursor instead,
+ * as the transaction history does.
+ */
+public record SliceResponse<T>(int page, int size, boolean hasNext, List<T> content) {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public static <T> SliceResponse<T> of(Slice<T> slice) {
+        return new SliceResponse<>(slice.getNumber(), slice.getSize(), slice.hasNext(), slice.getContent());
+    }
+
+    /** Clamps client supplied paging to sane bounds. */
+    public static Pageable pageable(int page, int size, Sort sort) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sort);
+    }
+}
@@ -2,6 +2,7 @@ package com.bankingsystem.core.modules.common.support.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.UUID;
 
 public interface FileStorageService {
@@ -19,5 +20,8 @@ public interface FileStorageService {
     /** INTERNAL: Read bytes for a stored upload by its UUID. */
     byte[] read(UUID id);
 
+    /** INTERNAL: Local path of a stored upload, for streaming it without reading it into memory. */
+    Path locate(UUID id);
+
     void delete(UUID id);
 }
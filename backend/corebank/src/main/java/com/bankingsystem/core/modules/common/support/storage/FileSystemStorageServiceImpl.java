@@ -90,6 +90,12 @@ public class FileSystemStorageServiceImpl implements FileStorageService {
         }
     }
 
+    @Override
+    public Path locate(UUID id) {
+        KycUpload u = repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Upload not found: " + id));
+        return Paths.get(u.getStoragePath());
+    }
+
     @Override
     public void delete(UUID id) {
         repo.findById(id).ifPresent(u -> {
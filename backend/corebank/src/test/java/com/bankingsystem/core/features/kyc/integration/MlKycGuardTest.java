@@ -0,0 +1,129 @@
+package com.bankingsystem.core.features.kyc.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeoutException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class MlKycGuardTest {
+
+    /** Window of 4 calls, opens at 50% failures, two probes; {@code openMs} controls the open period. */
+    private static MlKycGuard guard(long openMs, int limit) {
+        return new MlKycGuard(new SimpleMeterRegistry(), limit, limit, 0.5, 60_000, 4, 4, 0.5, openMs, 600_000, 2);
+    }
+
+    private static void succeed(MlKycGuard g) {
+        assertThat(g.protect(() -> Mono.just("ok")).block()).isEqualTo("ok");
+    }
+
+    private static void timeOut(MlKycGuard g) {
+        assertThatThrownBy(() -> g.protect(() -> Mono.error(new TimeoutException())).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    private static void trip(MlKycGuard g) {
+        succeed(g);
+        succeed(g);
+        timeOut(g);
+        timeOut(g);
+    }
+
+    @Test
+    @DisplayName("CLOSED -> OPEN once the failure rate is reached; calls are refused while open")
+    void opensOnFailures() {
+        MlKycGuard g = guard(60_000, 4);
+        trip(g);
+
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.OPEN);
+        assertThat(g.isOpen()).isTrue();
+        assertThatThrownBy(() -> g.protect(() -> Mono.just("ok")).block())
+                .isInstanceOf(MlUnavailableException.class);
+        assertThat(g.snapshot().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("OPEN -> HALF_OPEN -> CLOSED when every probe succeeds")
+    void closesAfterSuccessfulProbes() {
+        MlKycGuard g = guard(0, 4);
+        trip(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.OPEN);
+
+        succeed(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.HALF_OPEN);
+        succeed(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.CLOSED);
+        assertThat(g.isOpen()).isFalse();
+        assertThat(g.snapshot().windowCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN -> OPEN when a probe fails")
+    void reopensOnFailedProbe() {
+        MlKycGuard g = guard(0, 4);
+        trip(g);
+
+        succeed(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.HALF_OPEN);
+        timeOut(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("A probe without a verdict frees its slot instead of wedging HALF_OPEN")
+    void ignoredProbeFreesItsSlot() {
+        MlKycGuard g = guard(0, 4);
+        trip(g);
+
+        assertThatThrownBy(() -> g.protect(() -> Mono.error(new IllegalStateException("bad request"))).block())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> g.protect(() -> Mono.error(new IllegalStateException("bad request"))).block())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.HALF_OPEN);
+        assertThat(g.isOpen()).isFalse();
+
+        succeed(g);
+        succeed(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Admits nothing while open, only the free probe slots while half-open")
+    void admissibleFollowsTheState() {
+        MlKycGuard open = guard(60_000, 4);
+        assertThat(open.admissible()).isEqualTo(Integer.MAX_VALUE);
+        trip(open);
+        assertThat(open.admissible()).isZero();
+
+        MlKycGuard g = guard(0, 4);
+        trip(g);
+        assertThat(g.admissible()).isEqualTo(2);
+        succeed(g);
+        assertThat(g.snapshot().state()).isEqualTo(MlKycGuard.State.HALF_OPEN);
+        assertThat(g.admissible()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A waiter cancelled while waiting for a permit does not leak the slot")
+    void cancelledWaiterDoesNotLeak() {
+        MlKycGuard g = guard(60_000, 1);
+        Sinks.One<String> running = Sinks.one();
+        Disposable first = g.protect(running::asMono).subscribe();
+        Disposable waiting = g.protect(() -> Mono.just("late")).subscribe();
+        assertThat(g.snapshot().waiting()).isEqualTo(1);
+
+        waiting.dispose();
+        running.tryEmitValue("done");
+        first.dispose();
+
+        assertThat(g.snapshot().inFlight()).isZero();
+        assertThat(g.snapshot().waiting()).isZero();
+        succeed(g);
+    }
+}